@@ -0,0 +1,63 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Selection.SelectionBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// One mouse move of a marquee through SelectionBox, live preview included. Each invocation
+// is a whole gesture on the FX thread, growing a box from a random corner over STEPS moves
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoxSelectionBenchmark {
+
+    private static final int BOXES = 256;
+    private static final int STEPS = 20;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    // Box edge length in canvas units: a small marquee and one spanning a full screen
+    @Param({"400", "2000"})
+    public double boxSize;
+
+    private SelectionBox selectionBox;
+    private final double[] cornerX = new double[BOXES];
+    private final double[] cornerY = new double[BOXES];
+    private int box;
+
+    @Setup
+    public void setup() {
+        GraphFixture graph = GraphFixture.create(nodes, 42);
+        selectionBox = graph.selectionBox;
+
+        for (int i = 0; i < BOXES; i++) {
+            cornerX[i] = graph.random.nextDouble() * Math.max(0, graph.width() - boxSize);
+            cornerY[i] = graph.random.nextDouble() * Math.max(0, graph.height() - boxSize);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public int dragStep() {
+        return GraphFixture.onFx(() -> {
+            int i = box++ & (BOXES - 1);
+            selectionBox.begin(cornerX[i], cornerY[i]);
+            for (int step = 1; step <= STEPS; step++) {
+                double extent = boxSize * step / STEPS;
+                selectionBox.update(cornerX[i] + extent, cornerY[i] + extent);
+            }
+            selectionBox.finish();
+            return i;
+        });
+    }
+}
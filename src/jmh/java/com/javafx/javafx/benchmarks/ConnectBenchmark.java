@@ -0,0 +1,103 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.Connectors.ConnectorPoint;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ConnectionManager.completeConnection as the second connector click runs it: the cycle
+// check, the duplicate check in the ConnectionRegistry, and adding the wire
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConnectBenchmark {
+
+    private static final int PAIRS = 1024;
+    private static final int BATCH = 64;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    private ConnectionManager connectionManager;
+    private final ConnectorPoint[] existingFrom = new ConnectorPoint[PAIRS];
+    private final ConnectorPoint[] existingTo = new ConnectorPoint[PAIRS];
+    private final ConnectorPoint[] newFrom = new ConnectorPoint[PAIRS];
+    private final ConnectorPoint[] newTo = new ConnectorPoint[PAIRS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        GraphFixture graph = GraphFixture.create(nodes, 42);
+        connectionManager = graph.connectionManager;
+        GraphFixture.onFx(() -> pickPairs(graph));
+    }
+
+    private Void pickPairs(GraphFixture graph) {
+        List<GraphNode> all = graph.nodes;
+
+        int found = 0;
+        while (found < PAIRS) {
+            GraphNode from = all.get(graph.random.nextInt(nodes));
+            if (connectionManager.getConnections().outDegree(from) == 0) continue;
+            GraphNode to = connectionManager.getConnections().getOutgoing(from).get(0).to();
+            existingFrom[found] = from.getConnector(ConnectorPoint.Type.OUTPUT);
+            existingTo[found] = to.getConnector(ConnectorPoint.Type.INPUT);
+            found++;
+        }
+
+        // Only pairs the editor would accept, so every call really adds a wire
+        found = 0;
+        while (found < PAIRS) {
+            GraphNode from = all.get(graph.random.nextInt(nodes));
+            GraphNode to = all.get(graph.random.nextInt(nodes));
+            if (from == to || connectionManager.connectionExists(from, to)
+                    || connectionManager.getTopologicalOrder().wouldCreateCycle(from.getModelId(), to.getModelId())) {
+                continue;
+            }
+            newFrom[found] = from.getConnector(ConnectorPoint.Type.OUTPUT);
+            newTo[found] = to.getConnector(ConnectorPoint.Type.INPUT);
+            found++;
+        }
+        return null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int rejectDuplicate() {
+        return GraphFixture.onFx(() -> {
+            for (int b = 0; b < BATCH; b++) {
+                int i = next++ & (PAIRS - 1);
+                connectionManager.completeConnection(existingFrom[i], existingTo[i]);
+            }
+            return connectionManager.getConnections().size();
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int connectAndDisconnect() {
+        return GraphFixture.onFx(() -> {
+            int wires = 0;
+            for (int b = 0; b < BATCH; b++) {
+                // Disconnecting again keeps the graph the same across iterations
+                int i = next++ & (PAIRS - 1);
+                connectionManager.completeConnection(newFrom[i], newTo[i]);
+                wires += connectionManager.getConnections().size();
+                connectionManager.removeConnections(List.of(
+                        connectionManager.getConnections().get(newFrom[i].getParentNode(), newTo[i].getParentNode())));
+            }
+            return wires;
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+// GraphNode.deleteSelectedNodes, as the delete key runs it: drop the selection's wires
+// and nodes from the ConnectionManager and its indexes, then from the scene
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeleteSelectionBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    // Share of the graph that is selected when delete is pressed
+    @Param({"0.01", "0.1"})
+    public double fraction;
+
+    private GraphFixture graph;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        graph = GraphFixture.create(nodes, 42);
+
+        int selected = Math.max(1, (int) (nodes * fraction));
+        int first = (nodes - selected) / 2;
+        GraphFixture.onFx(() -> {
+            graph.connectionManager.getSelection().selectMultiple(graph.nodes.subList(first, first + selected));
+            return null;
+        });
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        graph = null;
+    }
+
+    // One hop to the FX thread, small next to a delete of this size
+    @Benchmark
+    public int deleteSelected() {
+        return GraphFixture.onFx(() -> {
+            GraphNode.deleteSelectedNodes(graph.canvas, graph.connectionManager);
+            return graph.connectionManager.getModel().nodeCount();
+        });
+    }
+}
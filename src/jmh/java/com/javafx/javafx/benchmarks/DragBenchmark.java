@@ -0,0 +1,65 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One mouse-drag step as GraphNodeContext applies it: move the selection, which updates
+// the model and the node index through the bounds listeners, then
+// ConnectionManager.updateConnectionsFor recomputes only the wires touching it
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DragBenchmark {
+
+    // Even, so every batch ends where it started
+    private static final int BATCH = 16;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    @Param({"1", "64"})
+    public int selected;
+
+    private ConnectionManager connectionManager;
+    private List<GraphNode> selection;
+    private double direction = 1;
+
+    @Setup
+    public void setup() {
+        GraphFixture graph = GraphFixture.create(nodes, 42);
+        connectionManager = graph.connectionManager;
+
+        // A contiguous block from the middle of the graph, the way a marquee selects
+        int first = nodes / 2;
+        selection = graph.nodes.subList(first, first + selected);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int dragStep() {
+        return GraphFixture.onFx(() -> {
+            for (int b = 0; b < BATCH; b++) {
+                // Back and forth so the graph stays put across iterations
+                direction = -direction;
+                for (GraphNode node : selection) {
+                    node.setLayoutX(node.getLayoutX() + 3 * direction);
+                    node.setLayoutY(node.getLayoutY() + 2 * direction);
+                }
+                connectionManager.updateConnectionsFor(selection);
+            }
+            return selection.size();
+        });
+    }
+}
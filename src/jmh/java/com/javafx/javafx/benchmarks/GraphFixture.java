@@ -0,0 +1,131 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.Connectors.ConnectorPoint;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Selection.SelectionBox;
+import javafx.application.Platform;
+import javafx.geometry.Point2D;
+import javafx.scene.Scene;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+// The editor's own ConnectionManager, registry, indexes and SelectionBox over real nodes,
+// laid out as a grid with mostly local wires. Like the editor's event handlers, everything
+// that touches it runs on the FX thread through onFx; the benchmarks batch their operations
+// per call so the hop to that thread stays small next to the work measured
+public class GraphFixture {
+
+    public static final double SPACING_X = 200;
+    public static final double SPACING_Y = 120;
+
+    private static boolean started = false;
+
+    public final AnchorPane canvas = new AnchorPane();
+    public final ConnectionManager connectionManager;
+    public final SelectionBox selectionBox;
+    public final List<GraphNode> nodes;
+    public final int columns;
+    public final Random random;
+
+    private GraphFixture(int count, long seed) {
+        this.columns = (int) Math.ceil(Math.sqrt(count));
+        this.random = new Random(seed);
+
+        connectionManager = new ConnectionManager(canvas);
+        selectionBox = new SelectionBox(canvas, connectionManager.getNodeIndex(), connectionManager.getSelection());
+
+        nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GraphNode node = createNode("Node " + i);
+            node.setLayoutX((i % columns) * SPACING_X);
+            node.setLayoutY((i / columns) * SPACING_Y);
+            nodes.add(node);
+        }
+        canvas.getChildren().addAll(nodes);
+        for (GraphNode node : nodes) {
+            connectionManager.registerNode(node);
+        }
+
+        // Sizes and connector positions come from CSS and layout, so the wires start where they should
+        new Scene(canvas);
+        canvas.applyCss();
+        canvas.layout();
+
+        for (int i = 0; i < count; i++) {
+            if ((i + 1) % columns != 0 && i + 1 < count) connectionManager.connect(nodes.get(i), nodes.get(i + 1));
+
+            int other = i + random.nextInt(2 * columns + 1) - columns;
+            if (other >= 0 && other < count && other != i) connectionManager.connect(nodes.get(i), nodes.get(other));
+        }
+    }
+
+    public static GraphFixture create(int nodes, long seed) {
+        startPlatform();
+        return onFx(() -> new GraphFixture(nodes, seed));
+    }
+
+    public double width() {
+        return columns * SPACING_X;
+    }
+
+    public double height() {
+        return Math.ceil((double) nodes.size() / columns) * SPACING_Y;
+    }
+
+    // Same node as MainApp.createNode
+    private GraphNode createNode(String title) {
+        Rectangle background = new Rectangle(120, 60);
+        background.setArcWidth(15);
+        background.setArcHeight(15);
+        background.setFill(Color.DARKSLATEBLUE);
+        background.setStrokeWidth(2);
+        background.setStroke(Color.TRANSPARENT);
+
+        return new GraphNode(title, 0, connectionManager, background, canvas, canvas);
+    }
+
+    // Center of a connector in canvas coordinates, where a click on it would land
+    public static Point2D center(ConnectorPoint connector) {
+        Point2D inNode = connector.localToParent(connector.getWidth() / 2, connector.getHeight() / 2);
+        return connector.getParentNode().localToParent(inNode);
+    }
+
+    public static <T> T onFx(Callable<T> action) {
+        FutureTask<T> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Once per forked JVM; the benchmarks profile runs JavaFX on Monocle's headless platform
+    private static synchronized void startPlatform() {
+        if (started) return;
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        Platform.setImplicitExit(false);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        started = true;
+    }
+}
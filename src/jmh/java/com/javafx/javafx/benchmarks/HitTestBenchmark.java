@@ -0,0 +1,73 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.Connectors.ConnectorPoint;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// ConnectionManager.findConnectorAt, which the canvas input dispatcher runs on every
+// primary press and on release of a wire drag
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitTestBenchmark {
+
+    private static final int POINTS = 1024;
+    private static final int BATCH = 64;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    private ConnectionManager connectionManager;
+    private final double[] pointX = new double[POINTS];
+    private final double[] pointY = new double[POINTS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        GraphFixture graph = GraphFixture.create(nodes, 42);
+        connectionManager = graph.connectionManager;
+        GraphFixture.onFx(() -> probe(graph));
+    }
+
+    private Void probe(GraphFixture graph) {
+        // Half the probes land on a connector, the rest anywhere on the canvas
+        for (int i = 0; i < POINTS; i++) {
+            if (i % 2 == 0) {
+                GraphNode node = graph.nodes.get(graph.random.nextInt(nodes));
+                ConnectorPoint.Type type = graph.random.nextBoolean() ? ConnectorPoint.Type.INPUT : ConnectorPoint.Type.OUTPUT;
+                Point2D center = GraphFixture.center(node.getConnector(type));
+                pointX[i] = center.getX();
+                pointY[i] = center.getY();
+            } else {
+                pointX[i] = graph.random.nextDouble() * graph.width();
+                pointY[i] = graph.random.nextDouble() * graph.height();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int findConnectorAt() {
+        return GraphFixture.onFx(() -> {
+            int hits = 0;
+            for (int b = 0; b < BATCH; b++) {
+                int i = next++ & (POINTS - 1);
+                if (connectionManager.findConnectorAt(pointX[i], pointY[i]) != null) hits++;
+            }
+            return hits;
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Model.GraphModel;
+import com.javafx.javafx.lib.Model.TopologicalOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// The GraphModel and TopologicalOrder work under ConnectBenchmark, without JavaFX: the
+// edge table lookup, the cycle check and adding and removing an edge with its reordering
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    private GraphModel model;
+    private TopologicalOrder order;
+    private final int[] probeFrom = new int[PAIRS];
+    private final int[] probeTo = new int[PAIRS];
+    private final int[] newFrom = new int[PAIRS];
+    private final int[] newTo = new int[PAIRS];
+    private int next;
+
+    @Setup
+    public void setup() {
+        ModelFixture graph = new ModelFixture(nodes, 42);
+        model = graph.model;
+        order = graph.order;
+
+        // Half the probes are existing edges, the rest random pairs that mostly miss
+        for (int i = 0; i < PAIRS; i++) {
+            int from = graph.random.nextInt(nodes);
+            if (i % 2 == 0 && model.outDegree(from) > 0) {
+                int edge = model.outEdge(from, 0);
+                probeFrom[i] = from;
+                probeTo[i] = model.edgeTo(edge);
+            } else {
+                probeFrom[i] = from;
+                probeTo[i] = graph.random.nextInt(nodes);
+            }
+        }
+
+        // Only pairs the editor would accept, as in ConnectBenchmark
+        int found = 0;
+        while (found < PAIRS) {
+            int from = graph.random.nextInt(nodes);
+            int to = graph.random.nextInt(nodes);
+            if (from == to || model.hasEdge(from, to) || order.wouldCreateCycle(from, to)) continue;
+            newFrom[found] = from;
+            newTo[found] = to;
+            found++;
+        }
+    }
+
+    @Benchmark
+    public int findEdge() {
+        int i = next++ & (PAIRS - 1);
+        return model.findEdge(probeFrom[i], probeTo[i]);
+    }
+
+    @Benchmark
+    public boolean wouldCreateCycle() {
+        // The reverse of an accepted wire, which closes a cycle only if a path already joins them
+        int i = next++ & (PAIRS - 1);
+        return order.wouldCreateCycle(newTo[i], newFrom[i]);
+    }
+
+    @Benchmark
+    public int connectAndDisconnect() {
+        // Disconnecting again keeps the graph the same across iterations
+        int i = next++ & (PAIRS - 1);
+        int edge = model.connect(newFrom[i], newTo[i]);
+        model.disconnect(edge);
+        return edge;
+    }
+}
@@ -0,0 +1,55 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Model.GraphModel;
+import com.javafx.javafx.lib.Model.TopologicalOrder;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
+
+import java.util.Random;
+
+// The graph of GraphFixture without any JavaFX: the GraphModel with its TopologicalOrder,
+// and a node index keyed by model id, built the way ConnectionManager builds its own
+public class ModelFixture {
+
+    public static final double NODE_WIDTH = 120;
+    public static final double NODE_HEIGHT = 60;
+    private static final double GRID_CELL_SIZE = 256;
+
+    public final GraphModel model = new GraphModel();
+    public final TopologicalOrder order = new TopologicalOrder(model);
+    public final SpatialGrid<Integer> nodeIndex = new SpatialGrid<>(GRID_CELL_SIZE);
+    public final int columns;
+    public final Random random;
+
+    public ModelFixture(int count, long seed) {
+        this.columns = (int) Math.ceil(Math.sqrt(count));
+        this.random = new Random(seed);
+
+        for (int i = 0; i < count; i++) {
+            double x = (i % columns) * GraphFixture.SPACING_X;
+            double y = (i / columns) * GraphFixture.SPACING_Y;
+            int id = model.addNode(x, y, NODE_WIDTH, NODE_HEIGHT);
+            nodeIndex.put(id, new Rect(x, y, x + NODE_WIDTH, y + NODE_HEIGHT));
+        }
+
+        // Same wiring as GraphFixture; like ConnectionManager.connect only duplicates are skipped
+        for (int i = 0; i < count; i++) {
+            if ((i + 1) % columns != 0 && i + 1 < count) connect(i, i + 1);
+
+            int other = i + random.nextInt(2 * columns + 1) - columns;
+            if (other >= 0 && other < count && other != i) connect(i, other);
+        }
+    }
+
+    public double width() {
+        return columns * GraphFixture.SPACING_X;
+    }
+
+    public double height() {
+        return Math.ceil((double) model.nodeCount() / columns) * GraphFixture.SPACING_Y;
+    }
+
+    private void connect(int from, int to) {
+        if (!model.hasEdge(from, to)) model.connect(from, to);
+    }
+}
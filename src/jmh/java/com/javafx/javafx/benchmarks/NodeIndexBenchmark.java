@@ -0,0 +1,60 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The SpatialGrid lookups behind hit testing and the marquee, without JavaFX: a point
+// query and a box query over the node index
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NodeIndexBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    // Box edge length in canvas units, as in BoxSelectionBenchmark
+    @Param({"400", "2000"})
+    public double boxSize;
+
+    private SpatialGrid<Integer> nodeIndex;
+    private final double[] probeX = new double[PROBES];
+    private final double[] probeY = new double[PROBES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        ModelFixture graph = new ModelFixture(nodes, 42);
+        nodeIndex = graph.nodeIndex;
+
+        for (int i = 0; i < PROBES; i++) {
+            probeX[i] = graph.random.nextDouble() * Math.max(0, graph.width() - boxSize);
+            probeY[i] = graph.random.nextDouble() * Math.max(0, graph.height() - boxSize);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> queryPoint() {
+        int i = next++ & (PROBES - 1);
+        return nodeIndex.queryPoint(probeX[i], probeY[i]);
+    }
+
+    @Benchmark
+    public List<Integer> queryBox() {
+        int i = next++ & (PROBES - 1);
+        return nodeIndex.query(new Rect(probeX[i], probeY[i], probeX[i] + boxSize, probeY[i] + boxSize));
+    }
+}
@@ -0,0 +1,108 @@
+package com.javafx.javafx.benchmarks;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Spatial.Rect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Right-drag sweep cut through ConnectionManager: a drag step with its live preview, and
+// the drag step plus the release that cuts every wire crossed. Each invocation includes
+// one hop to the FX thread, small next to a sweep across this many wires
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SweepCutBenchmark {
+
+    // Roughly what a user sweeps across in one gesture
+    private static final double SWEEP_LENGTH = 1500;
+
+    @Param({"1000", "10000", "50000"})
+    public int nodes;
+
+    private GraphFixture graph;
+    private ConnectionManager connectionManager;
+    private double x2, y2;
+    // Every wire near the sweep, so whatever it cut can be put back afterwards
+    private final List<GraphNode> nearFrom = new ArrayList<>();
+    private final List<GraphNode> nearTo = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        graph = GraphFixture.create(nodes, 42);
+        connectionManager = graph.connectionManager;
+        GraphFixture.onFx(() -> {
+            connectionManager.setLiveSweepPreview(true);
+            return null;
+        });
+    }
+
+    @Setup(Level.Invocation)
+    public void beginSweep() {
+        GraphFixture.onFx(this::placeSweep);
+    }
+
+    private Void placeSweep() {
+        double centerX = graph.width() / 2;
+        double centerY = graph.height() / 2;
+        double angle = graph.random.nextDouble() * Math.PI;
+        double x1 = centerX - Math.cos(angle) * SWEEP_LENGTH / 2;
+        double y1 = centerY - Math.sin(angle) * SWEEP_LENGTH / 2;
+        x2 = centerX + Math.cos(angle) * SWEEP_LENGTH / 2;
+        y2 = centerY + Math.sin(angle) * SWEEP_LENGTH / 2;
+
+        nearFrom.clear();
+        nearTo.clear();
+        for (ConnectionRecord c : connectionManager.getWireIndex().query(Rect.of(x1, y1, x2, y2))) {
+            nearFrom.add(c.from());
+            nearTo.add(c.to());
+        }
+        connectionManager.beginSweep(x1, y1);
+        return null;
+    }
+
+    @TearDown(Level.Invocation)
+    public void restoreCutWires() {
+        GraphFixture.onFx(this::reconnect);
+    }
+
+    private Void reconnect() {
+        connectionManager.finishSweep();
+        for (int i = 0; i < nearFrom.size(); i++) {
+            if (!connectionManager.connectionExists(nearFrom.get(i), nearTo.get(i))) {
+                connectionManager.connect(nearFrom.get(i), nearTo.get(i));
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int previewHits() {
+        return GraphFixture.onFx(() -> {
+            connectionManager.updateSweep(x2, y2);
+            return connectionManager.getConnections().size();
+        });
+    }
+
+    @Benchmark
+    public int cut() {
+        return GraphFixture.onFx(() -> {
+            connectionManager.updateSweep(x2, y2);
+            connectionManager.finishSweep();
+            return connectionManager.getConnections().size();
+        });
+    }
+}
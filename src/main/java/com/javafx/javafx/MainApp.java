@@ -3,21 +3,47 @@ package com.javafx.javafx;
 import com.javafx.javafx.lib.Selection.SelectionBox;
 import com.javafx.javafx.lib.Menu.MenuHandler;
 import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.History.EditJournal;
+import com.javafx.javafx.lib.Input.CanvasInputDispatcher;
 import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.Execution.DataflowEngine;
+import com.javafx.javafx.lib.Execution.ExecutionListener;
+import com.javafx.javafx.lib.Execution.NodeResult;
+import com.javafx.javafx.lib.Layout.ForceDirectedLayout;
+import com.javafx.javafx.lib.Layout.LayeredLayout;
+import com.javafx.javafx.lib.Layout.LayoutEngine;
+import com.javafx.javafx.lib.Metrics.EditorMetrics;
+import com.javafx.javafx.lib.Metrics.FrameMonitor;
+import com.javafx.javafx.lib.Metrics.MetricsOverlay;
+import com.javafx.javafx.lib.Persistence.GraphFile;
+import com.javafx.javafx.lib.Persistence.GraphSnapshot;
+import com.javafx.javafx.lib.Persistence.GraphStore;
+import com.javafx.javafx.lib.Persistence.TiledGraphFile;
+import com.javafx.javafx.lib.Persistence.TiledGraphLoader;
+import com.javafx.javafx.lib.Rendering.CanvasWireRenderer;
+import com.javafx.javafx.lib.Routing.RoutingMode;
+import com.javafx.javafx.lib.Scheduling.UpdateScheduler;
+import com.javafx.javafx.lib.Viewport.LevelOfDetailController;
+import com.javafx.javafx.lib.Viewport.ViewportVirtualizer;
+import com.javafx.javafx.lib.Viewport.ZoomController;
 import javafx.application.Application;
 import javafx.geometry.Point2D;
-import javafx.scene.Cursor;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.input.KeyCode;
-import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -27,9 +53,48 @@ public class MainApp extends Application {
     private AnchorPane contentGroup; // Changed from Group to AnchorPane
     private ConnectionManager connectionManager;
 
+    // Set -Dnodeeditor.wires=lines to keep one Line node per connection
+    private static final boolean LINE_WIRES = "lines".equals(System.getProperty("nodeeditor.wires"));
+    // Set -Dnodeeditor.virtualize=false to keep every node attached to the scene graph
+    private static final boolean VIRTUALIZE = !"false".equals(System.getProperty("nodeeditor.virtualize"));
+    // -Dnodeeditor.routing=straight|bezier|orthogonal, W cycles through them; line wires are always straight
+    private static final RoutingMode ROUTING = RoutingMode.valueOf(
+            System.getProperty("nodeeditor.routing", "straight").toUpperCase());
+
+    private ViewportVirtualizer virtualizer;
+    private LevelOfDetailController levelOfDetail;
+    private GraphStore graphStore;
+    private TiledGraphLoader tiledLoader;
+    private EditJournal journal;
+    private DataflowEngine engine;
+    private LayoutEngine layoutEngine;
+
+    // Memory cap of the undo history, -Dnodeeditor.historyMegabytes=N to change it
+    private static final long HISTORY_BYTES = Long.getLong("nodeeditor.historyMegabytes", 16) * 1024 * 1024;
+
+    // Saving as .tgraph splits the graph into tiles that are streamed in while panning
+    private static final String TILED_EXTENSION = ".tgraph";
+    private static final double TILE_SIZE = 2048;
+
+    private static final KeyCombination SAVE = new KeyCodeCombination(KeyCode.S, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination OPEN = new KeyCodeCombination(KeyCode.O, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination UNDO = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN);
+    private static final KeyCombination REDO = new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
+    private static final KeyCombination FORCE_LAYOUT = new KeyCodeCombination(KeyCode.L);
+    private static final KeyCombination LAYERED_LAYOUT = new KeyCodeCombination(KeyCode.L, KeyCombination.SHIFT_DOWN);
+    private static final KeyCombination REFINE_LAYOUT = new KeyCodeCombination(KeyCode.L, KeyCombination.SHORTCUT_DOWN);
+
+    private static final double MIN_SCALE = 0.1;
+    private static final double MAX_SCALE = 2;
+
+    // Pan input accumulates here and is applied once per pulse
+    private final UpdateScheduler scheduler = UpdateScheduler.getInstance();
+    private static final Object PAN_UPDATE = new Object();
+    private double pendingPanX, pendingPanY;
+
     @Override
     public void start(Stage primaryStage) {
-        System.out.println("Starting!!");
+        EditorMetrics.getInstance().registerMBean();
 
         canvas = new AnchorPane();
         canvas.setPrefSize(800, 600);
@@ -50,43 +115,23 @@ public class MainApp extends Application {
         canvas.getChildren().addAll(contentGroup, selectionLayer);
 
         connectionManager = new ConnectionManager(contentGroup);
+        if (!LINE_WIRES) {
+            connectionManager.setWireRenderer(new CanvasWireRenderer(
+                    canvas, contentGroup, connectionManager.getWireIndex(), connectionManager.getWireRouter()));
+            connectionManager.setRoutingMode(ROUTING);
+        }
 
-        // Panning variables
-        final double[] dragStart = new double[2];
-
-        canvas.setOnMousePressed(e -> {
-            if (e.isMiddleButtonDown()) {
-                canvas.setCursor(Cursor.CLOSED_HAND);
-                dragStart[0] = e.getSceneX();
-                dragStart[1] = e.getSceneY();
-                e.consume();
-            }
-            if (!e.isMiddleButtonDown()) {
-                GraphNode.clearSelection();
-            }
-        });
-
-        canvas.setOnMouseReleased(e -> {
-            if (e.getButton().name().equals("MIDDLE")) {
-                canvas.setCursor(Cursor.DEFAULT); // Reset to normal
-            }
-        });
+        virtualizer = new ViewportVirtualizer(canvas, contentGroup, connectionManager);
+        virtualizer.setEnabled(VIRTUALIZE);
+        levelOfDetail = new LevelOfDetailController(contentGroup, connectionManager);
+        graphStore = new GraphStore(connectionManager, contentGroup, this::createNode);
+        journal = new EditJournal(connectionManager, contentGroup, this::createNode, HISTORY_BYTES);
+        connectionManager.setJournal(journal);
+        engine = new DataflowEngine(connectionManager.getModel());
+        layoutEngine = new LayoutEngine(connectionManager);
+        layoutEngine.setOnApplied(virtualizer::requestRefresh);
 
-        canvas.setOnMouseDragged(e -> {
-            if (e.isMiddleButtonDown()) {
-                double deltaX = e.getSceneX() - dragStart[0];
-                double deltaY = e.getSceneY() - dragStart[1];
-
-                contentGroup.setTranslateX(contentGroup.getTranslateX() + deltaX);
-                contentGroup.setTranslateY(contentGroup.getTranslateY() + deltaY);
-
-                dragStart[0] = e.getSceneX();
-                dragStart[1] = e.getSceneY();
-                e.consume();
-            }
-        });
-
-        canvas.setOnScroll(this::onMouseScroll);
+        new ZoomController(canvas, contentGroup, MIN_SCALE, MAX_SCALE);
 
 
         // Optional button for testing
@@ -98,54 +143,142 @@ public class MainApp extends Application {
 
         mainCanvasMenus(canvas);
 
-        // Pass contentGroup as wrapperPane to GraphNode for coordinate conversions
-        new SelectionBox(contentGroup);
+        SelectionBox selectionBox = new SelectionBox(contentGroup, connectionManager.getNodeIndex(), connectionManager.getSelection());
+
+        // All mouse gestures on the canvas: middle-drag pans, primary drags nodes, wires
+        // or a selection box, secondary sweeps wires away or opens the node menu
+        CanvasInputDispatcher input = new CanvasInputDispatcher(canvas, contentGroup, connectionManager, selectionBox);
+        input.setOnPan((deltaX, deltaY) -> {
+            pendingPanX += deltaX;
+            pendingPanY += deltaY;
+            scheduler.schedule(PAN_UPDATE, this::applyPan);
+        });
 
         Scene scene = new Scene(canvas);
 
+        // F3 toggles the debug overlay; -Dnodeeditor.metrics=true monitors frames from the start
+        FrameMonitor frameMonitor = new FrameMonitor(scene, connectionManager);
+        frameMonitor.setEnabled(Boolean.getBoolean("nodeeditor.metrics"));
+        MetricsOverlay metricsOverlay = new MetricsOverlay(canvas, frameMonitor);
+
         scene.setOnKeyPressed(e -> {
             if (Objects.requireNonNull(e.getCode()) == KeyCode.ESCAPE) {
-                GraphNode.clearSelection();
+                layoutEngine.cancel();
+                connectionManager.getSelection().clear();
+            } else if (SAVE.match(e)) {
+                saveGraph(primaryStage);
+            } else if (OPEN.match(e)) {
+                openGraph(primaryStage);
+            } else if (e.getCode() == KeyCode.F3) {
+                metricsOverlay.toggle();
+            } else if (e.getCode() == KeyCode.F5) {
+                engine.run();
+            } else if (e.getCode() == KeyCode.W && !LINE_WIRES) {
+                RoutingMode[] modes = RoutingMode.values();
+                RoutingMode current = connectionManager.getWireRouter().getMode();
+                connectionManager.setRoutingMode(modes[(current.ordinal() + 1) % modes.length]);
+            } else if (FORCE_LAYOUT.match(e)) {
+                layoutEngine.start(new ForceDirectedLayout());
+            } else if (LAYERED_LAYOUT.match(e)) {
+                layoutEngine.start(new LayeredLayout());
+            } else if (REFINE_LAYOUT.match(e)) {
+                layoutEngine.refine();
+            } else if (REDO.match(e)) {
+                journal.redo();
+            } else if (UNDO.match(e)) {
+                journal.undo();
             }
         });
 
         primaryStage.setScene(scene);
         primaryStage.setTitle("Node Editor");
         primaryStage.show();
-    }
-
-    private void onMouseScroll(ScrollEvent event) {
-        double zoomFactor = 1.05;
-        double oldScale = contentGroup.getScaleX();
-        double delta = event.getDeltaY();
-
-        double scale = (delta > 0) ? oldScale * zoomFactor : oldScale / zoomFactor;
-        scale = Math.min(Math.max(scale, 0.5), 2); // clamp between 0.5 and 2
 
-        if (scale == oldScale) return; // no change
+        // Progress arrives batched, at most once per pulse
+        engine.addListener(new ExecutionListener() {
+            @Override
+            public void resultsPublished(List<NodeResult> results, int completed, int total) {
+                primaryStage.setTitle("Node Editor - running " + completed + "/" + total);
+            }
 
-        // Get the mouse position in contentGroup's coordinates
-        Point2D mouseSceneCoords = new Point2D(event.getSceneX(), event.getSceneY());
-        Point2D mouseInContent = contentGroup.sceneToLocal(mouseSceneCoords);
+            @Override
+            public void runFinished(int completed, int[] cyclicNodes) {
+                primaryStage.setTitle(cyclicNodes.length == 0
+                        ? "Node Editor"
+                        : "Node Editor - " + cyclicNodes.length + " nodes not run, graph has a cycle");
+            }
+        });
+    }
 
-        // Apply scale
-        contentGroup.setScaleX(scale);
-        contentGroup.setScaleY(scale);
+    private void applyPan() {
+        contentGroup.setTranslateX(contentGroup.getTranslateX() + pendingPanX);
+        contentGroup.setTranslateY(contentGroup.getTranslateY() + pendingPanY);
+        pendingPanX = 0;
+        pendingPanY = 0;
+    }
 
-        // After scaling, convert back to scene coords to see where content moved
-        Point2D newMouseSceneCoords = contentGroup.localToScene(mouseInContent);
+    private void saveGraph(Stage stage) {
+        File file = graphFileChooser().showSaveDialog(stage);
+        if (file == null) return;
+
+        try {
+            // With a tiled graph open the scene only holds the tiles around the viewport
+            GraphSnapshot graph = tiledLoader != null ? tiledLoader.capture(graphStore.capture()) : graphStore.capture();
+            if (file.getName().endsWith(TILED_EXTENSION)) {
+                TiledGraphFile.write(file.toPath(), graph, TILE_SIZE);
+            } else {
+                GraphFile.write(file.toPath(), graph);
+            }
+        } catch (IOException ex) {
+            System.err.println("Could not save graph: " + ex.getMessage());
+        }
+    }
 
-        // Compute the delta in scene space and apply it to translation
-        double dx = mouseSceneCoords.getX() - newMouseSceneCoords.getX();
-        double dy = mouseSceneCoords.getY() - newMouseSceneCoords.getY();
+    private void openGraph(Stage stage) {
+        File file = graphFileChooser().showOpenDialog(stage);
+        if (file == null) return;
+
+        try {
+            layoutEngine.cancel();
+            closeTiledGraph();
+            journal.clear();
+            if (file.getName().endsWith(TILED_EXTENSION)) {
+                TiledGraphFile tiled = TiledGraphFile.open(file.toPath());
+                graphStore.clear();
+                tiledLoader = new TiledGraphLoader(tiled, connectionManager, canvas, contentGroup, this::createNode);
+            } else {
+                graphStore.load(file.toPath(), virtualizer::requestRefresh);
+            }
+        } catch (IOException ex) {
+            System.err.println("Could not open graph: " + ex.getMessage());
+        }
+    }
 
-        contentGroup.setTranslateX(contentGroup.getTranslateX() + dx);
-        contentGroup.setTranslateY(contentGroup.getTranslateY() + dy);
+    private void closeTiledGraph() throws IOException {
+        if (tiledLoader != null) {
+            tiledLoader.dispose();
+            tiledLoader = null;
+        }
+    }
 
-        event.consume();
+    private static FileChooser graphFileChooser() {
+        FileChooser chooser = new FileChooser();
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Node graphs", "*.graph"),
+                new FileChooser.ExtensionFilter("Tiled node graphs", "*" + TILED_EXTENSION));
+        return chooser;
     }
 
     private void addNode(double x, double y) {
+        GraphNode graphNode = createNode("Node " + (contentGroup.getChildren().size()), 0);
+        graphNode.setLayoutX(x);
+        graphNode.setLayoutY(y);
+        contentGroup.getChildren().add(graphNode);
+        connectionManager.registerNode(graphNode);
+        journal.recordCreated(graphNode);
+    }
+
+    private GraphNode createNode(String title, int maxConnections) {
         Rectangle background = new Rectangle(120, 60);
         background.setArcWidth(15);
         background.setArcHeight(15);
@@ -154,16 +287,15 @@ public class MainApp extends Application {
         background.setStroke(Color.TRANSPARENT);
 
         GraphNode graphNode = new GraphNode(
-                "Node " + (contentGroup.getChildren().size()),
-                0,
+                title,
+                maxConnections,
                 connectionManager,
                 background,
                 contentGroup, // contentGroup is AnchorPane now
                 contentGroup  // pass same AnchorPane as wrapperPane for coordinate conversions
         );
-        graphNode.setLayoutX(x);
-        graphNode.setLayoutY(y);
-        contentGroup.getChildren().add(graphNode);
+        graphNode.setDetailLevel(levelOfDetail.getLevel());
+        return graphNode;
     }
 
     private void mainCanvasMenus(AnchorPane canvas) {
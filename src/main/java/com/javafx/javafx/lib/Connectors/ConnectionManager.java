@@ -1,18 +1,40 @@
 package com.javafx.javafx.lib.Connectors;
 
 import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.DataHolders.ConnectionRegistry;
 import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.History.EditJournal;
+import com.javafx.javafx.lib.Metrics.EditorEvents;
+import com.javafx.javafx.lib.Metrics.EditorMetrics;
+import com.javafx.javafx.lib.Metrics.Operation;
+import com.javafx.javafx.lib.Model.GraphModel;
+import com.javafx.javafx.lib.Model.TopologicalOrder;
+import com.javafx.javafx.lib.Rendering.LineWireRenderer;
+import com.javafx.javafx.lib.Rendering.WireRenderer;
+import com.javafx.javafx.lib.Routing.RoutingMode;
+import com.javafx.javafx.lib.Routing.WireRoute;
+import com.javafx.javafx.lib.Routing.WireRouter;
+import com.javafx.javafx.lib.Selection.GraphNodeSelectionManager;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
+import javafx.beans.value.ChangeListener;
+import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
-import javafx.scene.Cursor;
 import javafx.scene.Group;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.awt.geom.Line2D.linesIntersect;
 
@@ -20,16 +42,32 @@ public class ConnectionManager {
     private final AnchorPane canvas;
     private  ConnectorPoint startPoint;
     private Line dragLine;
-    private final List<ConnectionRecord> connections = new ArrayList<>();
+    private final GraphModel model = new GraphModel();
+    private final List<GraphNode> nodeViews = new ArrayList<>();
+    private final ConnectionRegistry connections = new ConnectionRegistry(model);
+    private final TopologicalOrder topologicalOrder = new TopologicalOrder(model);
+    private final GraphNodeSelectionManager selection = new GraphNodeSelectionManager(this);
     private boolean isRightDragging = false;
     private Line sweepLine;
 
+    private static final double GRID_CELL_SIZE = 256;
+    private final SpatialGrid<GraphNode> nodeIndex = new SpatialGrid<>(GRID_CELL_SIZE);
+    private final Map<GraphNode, ChangeListener<Bounds>> boundsListeners = new HashMap<>();
+    private final SpatialGrid<ConnectionRecord> wireIndex = new SpatialGrid<>(GRID_CELL_SIZE);
+    private final WireRouter wireRouter = new WireRouter(nodeIndex, wireIndex);
+    private final Set<ConnectionRecord> sweepHits = new HashSet<>();
+    private boolean liveSweepPreview = true;
+    private WireRenderer wireRenderer;
+    private EditJournal journal;
+    private final EditorMetrics metrics = EditorMetrics.getInstance();
+
+    private static final Color WIRE_COLOR = Color.LIGHTGRAY;
+    private static final Color WIRE_CUT_COLOR = Color.ORANGERED;
+
     public ConnectionManager(AnchorPane canvas) {
         this.canvas = canvas;
-
-        canvas.setOnMousePressed(this::handleMousePressed);
-        canvas.addEventFilter(MouseEvent.MOUSE_DRAGGED, this::handleMouseDragged);
-        canvas.addEventFilter(MouseEvent.MOUSE_RELEASED, this::handleMouseReleased);
+        this.wireRenderer = new LineWireRenderer(canvas, wireIndex);
+        wireRouter.setOnRouted(this::routeChanged);
     }
 
     public void startConnection(ConnectorPoint from) {
@@ -50,75 +88,172 @@ public class ConnectionManager {
         canvas.getChildren().add(dragLine);
     }
 
-    private void handleMousePressed(MouseEvent e) {
-        canvas.setCursor(Cursor.HAND);
-        if (e.isSecondaryButtonDown()) {
-            // Start right-drag deletion
-            isRightDragging = true;
-            sweepLine = new Line(e.getX(), e.getY(), e.getX(), e.getY());
-            sweepLine.setStroke(Color.RED);
-            sweepLine.setStrokeWidth(2);
-            sweepLine.getStrokeDashArray().addAll(10.0, 5.0);
-            canvas.getChildren().add(sweepLine);
-            e.consume();
-        } else {
-            // Left-click: connection drag start (if over a connector)
-            ConnectorPoint cp = findConnectorAt(e.getX(), e.getY());
-            if (cp != null && cp.getType() == ConnectorPoint.Type.OUTPUT) {
-                startConnection(cp); // Existing logic
-                e.consume();
-            }
+    // Connection drag started from startPoint; the line follows the mouse until finishConnectionDrag
+    public void updateConnectionDrag(double x, double y) {
+        if (dragLine == null) return;
+        dragLine.setEndX(x);
+        dragLine.setEndY(y);
+    }
+
+    public void finishConnectionDrag(double x, double y) {
+        if (dragLine == null) return;
+
+        ConnectorPoint target = findConnectorAt(x, y);
+        if (target != null && startPoint != null) {
+            completeConnection(startPoint, target);
         }
+        canvas.getChildren().remove(dragLine);
+        dragLine = null;
+        startPoint = null;
+    }
+
+    public boolean isConnectionDragActive() {
+        return dragLine != null;
     }
 
-    private void handleMouseDragged(MouseEvent e) {
-        if (isRightDragging && sweepLine != null) {
-            sweepLine.setEndX(e.getX());
-            sweepLine.setEndY(e.getY());
-            e.consume();
-        } else if (dragLine != null) {
-            dragLine.setEndX(e.getX());
-            dragLine.setEndY(e.getY());
-            e.consume();
+    // Right-drag sweep that cuts every wire it crosses on release
+    public void beginSweep(double x, double y) {
+        isRightDragging = true;
+        sweepLine = new Line(x, y, x, y);
+        sweepLine.setStroke(Color.RED);
+        sweepLine.setStrokeWidth(2);
+        sweepLine.getStrokeDashArray().addAll(10.0, 5.0);
+        canvas.getChildren().add(sweepLine);
+    }
+
+    public void updateSweep(double x, double y) {
+        if (!isRightDragging || sweepLine == null) return;
+
+        sweepLine.setEndX(x);
+        sweepLine.setEndY(y);
+        if (liveSweepPreview) {
+            previewSweepHits(sweepLine);
         }
     }
 
-    private void handleMouseReleased(MouseEvent e) {
-        if (isRightDragging && sweepLine != null) {
-            removeIntersectingConnections(sweepLine);
-            canvas.getChildren().remove(sweepLine);
-            sweepLine = null;
-            isRightDragging = false;
-            e.consume();
-        } else if (dragLine != null) {
-            ConnectorPoint target = findConnectorAt(e.getX(), e.getY());
-            if (target != null && startPoint != null) {
-                completeConnection(startPoint, target);
+    public void finishSweep() {
+        if (!isRightDragging || sweepLine == null) return;
+
+        removeIntersectingConnections(sweepLine);
+        sweepHits.clear();
+        canvas.getChildren().remove(sweepLine);
+        sweepLine = null;
+        isRightDragging = false;
+    }
+
+    public void registerNode(GraphNode node) {
+        if (boundsListeners.containsKey(node)) return;
+
+        // The model holds the node's own position and size; the bounds in parent also take in
+        // the connectors sticking out at the sides, which only the spatial index wants
+        Bounds bounds = node.getBoundsInParent();
+        int id = model.addNode(node.getLayoutX(), node.getLayoutY(), node.getWidth(), node.getHeight());
+        node.setModelId(id);
+        while (nodeViews.size() <= id) nodeViews.add(null);
+        nodeViews.set(id, node);
+
+        // Bounds change on drag, on layout and when connectors are positioned
+        ChangeListener<Bounds> listener = (obs, oldBounds, newBounds) -> {
+            model.setBounds(id, node.getLayoutX(), node.getLayoutY(), node.getWidth(), node.getHeight());
+            Rect previous = nodeIndex.getBounds(node);
+            Rect current = toRect(newBounds);
+            nodeIndex.put(node, current);
+            if (previous != null) wireRouter.obstacleMoved(previous, current);
+            // A new size means the node was just laid out, often after its wires were connected
+            // to connectors that had no position yet. Plain moves are left to whoever moves the
+            // node, drags update the wires of the whole selection in one go
+            if (oldBounds.getWidth() != newBounds.getWidth() || oldBounds.getHeight() != newBounds.getHeight()) {
+                updateConnectionsFor(List.of(node));
             }
-            canvas.getChildren().remove(dragLine);
-            dragLine = null;
-            startPoint = null;
-            e.consume();
+        };
+        boundsListeners.put(node, listener);
+        node.boundsInParentProperty().addListener(listener);
+        nodeIndex.put(node, toRect(bounds));
+    }
+
+    public void unregisterNode(GraphNode node) {
+        ChangeListener<Bounds> listener = boundsListeners.remove(node);
+        if (listener == null) return;
+
+        node.boundsInParentProperty().removeListener(listener);
+        nodeIndex.remove(node);
+
+        // The model would drop the edges silently, so detach their wires first
+        removeConnectionsForNode(node);
+        // Ids are recycled, a new node must not inherit the selection
+        selection.deselect(node);
+        int id = node.getModelId();
+        model.removeNode(id);
+        nodeViews.set(id, null);
+        node.setModelId(-1);
+    }
+
+    public GraphModel getModel() {
+        return model;
+    }
+
+    public void setJournal(EditJournal journal) {
+        this.journal = journal;
+    }
+
+    public EditJournal getJournal() {
+        return journal;
+    }
+
+    public TopologicalOrder getTopologicalOrder() {
+        return topologicalOrder;
+    }
+
+    public GraphNodeSelectionManager getSelection() {
+        return selection;
+    }
+
+    public GraphNode getNode(int id) {
+        return id >= 0 && id < nodeViews.size() ? nodeViews.get(id) : null;
+    }
+
+    public SpatialGrid<GraphNode> getNodeIndex() {
+        return nodeIndex;
+    }
+
+    // Node under a point in canvas coordinates, found through the node index; nodes the
+    // viewport virtualizer has detached are off screen and never hit
+    public GraphNode findNodeAt(double x, double y) {
+        List<GraphNode> candidates = nodeIndex.queryPoint(x, y);
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            GraphNode node = candidates.get(i);
+            if (node.getParent() == canvas) return node;
         }
-        canvas.setCursor(Cursor.DEFAULT);
+        return null;
+    }
+
+    public ConnectorPoint findConnectorAt(double x, double y) {
+        long start = metrics.start();
+        ConnectorPoint found = hitTestConnector(x, y);
+        metrics.record(Operation.HIT_TEST, start);
+        return found;
     }
 
-    private ConnectorPoint findConnectorAt(double x, double y) {
-        for (var child : canvas.getChildren()) {
-            if (child instanceof GraphNode graphNode) {
-                for (var inner : graphNode.getChildren()) {
-                    if (inner instanceof ConnectorPoint cp) {
-                        var local = cp.sceneToLocal(canvas.localToScene(x, y));
-                        if (cp.contains(local)) {
-                            return cp;
-                        }
-                    }
+    private ConnectorPoint hitTestConnector(double x, double y) {
+        List<GraphNode> candidates = nodeIndex.queryPoint(x, y);
+        if (candidates.isEmpty()) return null;
+
+        Point2D scenePoint = canvas.localToScene(x, y);
+        for (GraphNode graphNode : candidates) {
+            for (ConnectorPoint.Type type : ConnectorPoint.Type.values()) {
+                ConnectorPoint cp = graphNode.getConnector(type);
+                if (cp.isVisible() && cp.contains(cp.sceneToLocal(scenePoint))) {
+                    return cp;
                 }
             }
         }
         return null;
     }
 
+    private static Rect toRect(Bounds bounds) {
+        return new Rect(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+    }
+
     public void completeConnection(ConnectorPoint from, ConnectorPoint to) {
 
         if (from.getType() == to.getType()) return;
@@ -126,43 +261,122 @@ public class ConnectionManager {
         GraphNode fromGraphNode = from.getType() == ConnectorPoint.Type.OUTPUT ? from.getParentNode() : to.getParentNode();
         GraphNode toGraphNode = to.getType() == ConnectorPoint.Type.INPUT ? to.getParentNode() : from.getParentNode();
 
-        boolean connectionExists = connectionExists(connections, fromGraphNode, toGraphNode);
+        // Dataflow graphs must stay acyclic; only the region between the two nodes is searched
+        if (topologicalOrder.wouldCreateCycle(fromGraphNode.getModelId(), toGraphNode.getModelId())) return;
+
+        if (connect(fromGraphNode, toGraphNode) && journal != null) {
+            journal.recordConnected(fromGraphNode, toGraphNode);
+        }
+    }
 
-        if (connectionExists) return;
+    // Adds a wire without recording it, for loading and for replaying history
+    public boolean connect(GraphNode fromGraphNode, GraphNode toGraphNode) {
+        if (connectionExists(fromGraphNode, toGraphNode)) return false;
 
-        long count = connections.stream()
-                .filter(c -> c.to() == toGraphNode)
-                .count();
+        if (!toGraphNode.allowsMoreConnections(connections.inDegree(toGraphNode))) return false;
 
-        if (!toGraphNode.allowsMoreConnections((int) count)) return;
+        long start = metrics.start();
+        EditorEvents.Connect event = new EditorEvents.Connect();
+        event.begin();
 
         Line line = new Line();
-        line.setStroke(Color.LIGHTGRAY);
+        line.setStroke(WIRE_COLOR);
         line.setStrokeWidth(2);
 
         ConnectionRecord conn = new ConnectionRecord(fromGraphNode, toGraphNode, line);
         connections.add(conn);
-        canvas.getChildren().addFirst(line);
+        wireRenderer.wireAdded(conn);
 
-        updateConnections();
+        updateConnection(conn);
+
+        event.fromNode = fromGraphNode.getModelId();
+        event.toNode = toGraphNode.getModelId();
+        event.wires = connections.size();
+        event.commit();
+        metrics.record(Operation.CONNECT, start);
+        return true;
+    }
+
+    public void removeConnections(Collection<ConnectionRecord> wires) {
+        for (ConnectionRecord c : wires) {
+            wireIndex.remove(c);
+            connections.remove(c);
+        }
+        wireRenderer.wiresRemoved(wires);
+        for (ConnectionRecord c : wires) {
+            wireRouter.forget(c);
+        }
     }
 
     public void removeConnectionsForNode(GraphNode node) {
-        List<ConnectionRecord> toRemove = new ArrayList<>();
+        for (ConnectionRecord c : connections.removeAllFor(node)) {
+            wireIndex.remove(c);
+            wireRenderer.wireRemoved(c);
+            wireRouter.forget(c);
+        }
+    }
 
-        for (ConnectionRecord c : connections) {
-            if (c.from() == node || c.to() == node) {
-                canvas.getChildren().remove(c.line());
-                toRemove.add(c);
-            }
+    // Removes the nodes and every wire touching them, notifying the renderer once
+    public void removeNodes(Collection<GraphNode> nodes) {
+        selection.deselectMultiple(nodes);
+
+        Set<ConnectionRecord> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GraphNode node : nodes) {
+            removed.addAll(connections.removeAllFor(node));
+        }
+        for (ConnectionRecord c : removed) {
+            wireIndex.remove(c);
+        }
+        wireRenderer.wiresRemoved(removed);
+        for (ConnectionRecord c : removed) {
+            wireRouter.forget(c);
+        }
+
+        for (GraphNode node : nodes) {
+            unregisterNode(node);
+        }
+    }
+
+    public List<ConnectionRecord> getIncidentConnections(GraphNode node) {
+        return connections.getIncident(node);
+    }
+
+    public SpatialGrid<ConnectionRecord> getWireIndex() {
+        return wireIndex;
+    }
+
+    public void setLiveSweepPreview(boolean liveSweepPreview) {
+        this.liveSweepPreview = liveSweepPreview;
+    }
+
+    public void setWireRenderer(WireRenderer renderer) {
+        for (ConnectionRecord c : connections.getAll()) {
+            wireRenderer.wireRemoved(c);
+            renderer.wireAdded(c);
         }
+        wireRenderer = renderer;
+    }
 
-        connections.removeAll(toRemove);
+    public WireRouter getWireRouter() {
+        return wireRouter;
     }
 
-    public boolean connectionExists(List<ConnectionRecord> connections, GraphNode fromGraphNode, GraphNode toGraphNode) {
-        return connections.stream()
-                .anyMatch(c -> c.from() == fromGraphNode && c.to() == toGraphNode);
+    public void setRoutingMode(RoutingMode mode) {
+        if (wireRouter.getMode() == mode) return;
+        wireRouter.setMode(mode);
+        updateConnections();
+    }
+
+    public WireRenderer getWireRenderer() {
+        return wireRenderer;
+    }
+
+    public ConnectionRegistry getConnections() {
+        return connections;
+    }
+
+    public boolean connectionExists(GraphNode fromGraphNode, GraphNode toGraphNode) {
+        return connections.contains(fromGraphNode, toGraphNode);
     }
 
 
@@ -175,8 +389,10 @@ public class ConnectionManager {
     }
 
     private Point2D getConnectorCenter(ConnectorPoint connector) {
-        Point2D scenePt = connector.localToScene(connector.getWidth() / 2, connector.getHeight() / 2);
-        return canvas.sceneToLocal(scenePt);
+        // Walk up through the node instead of the scene, so this also works for nodes
+        // that are currently detached from the canvas
+        Point2D inNode = connector.localToParent(connector.getWidth() / 2, connector.getHeight() / 2);
+        return connector.getParentNode().localToParent(inNode);
     }
 
     public void handleConnectorClick(ConnectorPoint clicked) {
@@ -193,43 +409,102 @@ public class ConnectionManager {
             return;
         }
 
-        // Ensure correct direction: always connect from OUTPUT to INPUT
-//        ConnectorPoint from = startPoint.getType() == ConnectorPoint.Type.OUTPUT ? startPoint : clicked;
-//        ConnectorPoint to = startPoint.getType() == ConnectorPoint.Type.INPUT ? clicked : startPoint;
+        // completeConnection orients the wire from OUTPUT to INPUT
+        completeConnection(startPoint, clicked);
+        startPoint = null;
+    }
 
-        ConnectorPoint from = startPoint;
+    public void updateConnections() {
+        long start = metrics.start();
+        for (ConnectionRecord c : connections.getAll()) {
+            updateConnection(c);
+        }
+        metrics.record(Operation.UPDATE_CONNECTIONS, start);
+    }
 
-        completeConnection(from, clicked);
-        startPoint = null;
+    public void updateConnectionsFor(Collection<GraphNode> movedNodes) {
+        long start = metrics.start();
+        // A wire between two moved nodes must only be recomputed once
+        Set<ConnectionRecord> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GraphNode node : movedNodes) {
+            for (ConnectionRecord c : getIncidentConnections(node)) {
+                if (touched.add(c)) {
+                    updateConnection(c);
+                }
+            }
+        }
+        metrics.record(Operation.UPDATE_CONNECTIONS, start);
     }
 
+    private void updateConnection(ConnectionRecord c) {
+        var start = getConnectorCenter(c.from().getConnector(ConnectorPoint.Type.OUTPUT));
+        var end = getConnectorCenter(c.to().getConnector(ConnectorPoint.Type.INPUT));
 
-    public void updateConnections() {
-        for (ConnectionRecord c : connections) {
-            var start = getConnectorCenter(c.from().getConnector(ConnectorPoint.Type.OUTPUT));
-            var end = getConnectorCenter(c.to().getConnector(ConnectorPoint.Type.INPUT));
+        c.line().setStartX(start.getX());
+        c.line().setStartY(start.getY());
+        c.line().setEndX(end.getX());
+        c.line().setEndY(end.getY());
+
+        WireRoute route = wireRouter.route(c, start.getX(), start.getY(), end.getX(), end.getY());
+        Rect oldBounds = wireIndex.getBounds(c);
+        wireIndex.put(c, route.bounds());
+        wireRenderer.wireChanged(c, oldBounds);
+    }
+
+    // A background route arrived; the line itself keeps the straight end points
+    private void routeChanged(ConnectionRecord c) {
+        Rect oldBounds = wireIndex.getBounds(c);
+        if (oldBounds == null) return;
+        wireIndex.put(c, wireRouter.getRoute(c).bounds());
+        wireRenderer.wireChanged(c, oldBounds);
+    }
 
-            c.line().setStartX(start.getX());
-            c.line().setStartY(start.getY());
-            c.line().setEndX(end.getX());
-            c.line().setEndY(end.getY());
+    private void setWireStroke(ConnectionRecord c, Color color) {
+        c.line().setStroke(color);
+        wireRenderer.wireChanged(c, null);
+    }
+
+    private void previewSweepHits(Line sweep) {
+        Set<ConnectionRecord> hits = findIntersectingConnections(sweep);
+
+        for (ConnectionRecord c : sweepHits) {
+            if (!hits.contains(c)) setWireStroke(c, WIRE_COLOR);
         }
+        for (ConnectionRecord c : hits) {
+            if (!sweepHits.contains(c)) setWireStroke(c, WIRE_CUT_COLOR);
+        }
+
+        sweepHits.clear();
+        sweepHits.addAll(hits);
     }
 
-    private void removeIntersectingConnections(Line dragLine) {
-        List<ConnectionRecord> toRemove = new ArrayList<>();
+    private Set<ConnectionRecord> findIntersectingConnections(Line sweep) {
+        Set<ConnectionRecord> hits = new HashSet<>();
+        Rect sweepBounds = Rect.of(sweep.getStartX(), sweep.getStartY(), sweep.getEndX(), sweep.getEndY());
 
-        for (ConnectionRecord c : connections) {
+        wireIndex.query(sweepBounds, c -> {
+            WireRoute route = wireRouter.getRoute(c);
             Line connLine = c.line();
-            if (linesIntersect(
-                    dragLine.getStartX(), dragLine.getStartY(), dragLine.getEndX(), dragLine.getEndY(),
-                    connLine.getStartX(), connLine.getStartY(), connLine.getEndX(), connLine.getEndY())) {
-                toRemove.add(c);
-                canvas.getChildren().remove(connLine);
-            }
-        }
+            boolean hit = route != null
+                    ? route.intersects(sweep.getStartX(), sweep.getStartY(), sweep.getEndX(), sweep.getEndY())
+                    : linesIntersect(
+                    sweep.getStartX(), sweep.getStartY(), sweep.getEndX(), sweep.getEndY(),
+                    connLine.getStartX(), connLine.getStartY(), connLine.getEndX(), connLine.getEndY());
+            if (hit) hits.add(c);
+        });
+        return hits;
+    }
+
+    private void removeIntersectingConnections(Line dragLine) {
+        EditorEvents.SweepCut event = new EditorEvents.SweepCut();
+        event.begin();
+
+        Set<ConnectionRecord> cut = findIntersectingConnections(dragLine);
+        if (journal != null) journal.recordDisconnected(cut);
+        removeConnections(cut);
 
-        connections.removeAll(toRemove);
+        event.wires = cut.size();
+        event.commit();
     }
 
 }
@@ -0,0 +1,102 @@
+package com.javafx.javafx.lib.DataHolders;
+
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Model.GraphModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Topology lives in the GraphModel; this only maps its edge ids to the wire views
+public class ConnectionRegistry {
+
+    private final GraphModel model;
+    private final List<ConnectionRecord> byEdge = new ArrayList<>();
+
+    public ConnectionRegistry(GraphModel model) {
+        this.model = model;
+    }
+
+    public boolean add(ConnectionRecord c) {
+        int edge = model.connect(c.from().getModelId(), c.to().getModelId());
+        if (edge < 0) return false;
+
+        while (byEdge.size() <= edge) byEdge.add(null);
+        byEdge.set(edge, c);
+        return true;
+    }
+
+    public boolean remove(ConnectionRecord c) {
+        int edge = model.findEdge(c.from().getModelId(), c.to().getModelId());
+        if (edge < 0 || byEdge.get(edge) != c) return false;
+
+        model.disconnect(edge);
+        byEdge.set(edge, null);
+        return true;
+    }
+
+    public List<ConnectionRecord> removeAllFor(GraphNode node) {
+        List<ConnectionRecord> removed = getIncident(node);
+        for (ConnectionRecord c : removed) {
+            remove(c);
+        }
+        return removed;
+    }
+
+    public boolean contains(GraphNode from, GraphNode to) {
+        return model.hasEdge(from.getModelId(), to.getModelId());
+    }
+
+    public ConnectionRecord get(GraphNode from, GraphNode to) {
+        return forEdge(model.findEdge(from.getModelId(), to.getModelId()));
+    }
+
+    public ConnectionRecord forEdge(int edge) {
+        return edge < 0 || edge >= byEdge.size() ? null : byEdge.get(edge);
+    }
+
+    public int inDegree(GraphNode node) {
+        return model.isNode(node.getModelId()) ? model.inDegree(node.getModelId()) : 0;
+    }
+
+    public int outDegree(GraphNode node) {
+        return model.isNode(node.getModelId()) ? model.outDegree(node.getModelId()) : 0;
+    }
+
+    public List<ConnectionRecord> getOutgoing(GraphNode node) {
+        List<ConnectionRecord> result = new ArrayList<>(outDegree(node));
+        if (outDegree(node) == 0) return result;
+        model.forEachOutgoing(node.getModelId(), edge -> result.add(byEdge.get(edge)));
+        return result;
+    }
+
+    public List<ConnectionRecord> getIncoming(GraphNode node) {
+        List<ConnectionRecord> result = new ArrayList<>(inDegree(node));
+        if (inDegree(node) == 0) return result;
+        model.forEachIncoming(node.getModelId(), edge -> result.add(byEdge.get(edge)));
+        return result;
+    }
+
+    public List<ConnectionRecord> getIncident(GraphNode node) {
+        List<ConnectionRecord> result = new ArrayList<>(outDegree(node) + inDegree(node));
+        if (!model.isNode(node.getModelId())) return result;
+
+        model.forEachOutgoing(node.getModelId(), edge -> result.add(byEdge.get(edge)));
+        model.forEachIncoming(node.getModelId(), edge -> result.add(byEdge.get(edge)));
+        return result;
+    }
+
+    public Collection<ConnectionRecord> getAll() {
+        List<ConnectionRecord> result = new ArrayList<>(model.edgeCount());
+        model.forEachEdge(edge -> result.add(byEdge.get(edge)));
+        return result;
+    }
+
+    public int size() {
+        return model.edgeCount();
+    }
+
+    public GraphModel getModel() {
+        return model;
+    }
+}
@@ -0,0 +1,341 @@
+package com.javafx.javafx.lib.Execution;
+
+import com.javafx.javafx.lib.Model.GraphModel;
+import com.javafx.javafx.lib.Scheduling.UpdateScheduler;
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Runs the graph as a dataflow: every node is an operator fed by its upstream results.
+// A run snapshots the affected topology on the FX thread and executes on a ForkJoinPool,
+// starting each node as soon as its last input is ready, so independent branches run in
+// parallel. Only dirty nodes and everything downstream of them are executed again.
+public class DataflowEngine implements GraphModel.Listener {
+
+    private final GraphModel model;
+    private final ForkJoinPool pool;
+    private final Map<Integer, NodeOperator> operators = new HashMap<>();
+    private final List<ExecutionListener> listeners = new ArrayList<>();
+
+    // Cached results by node id; only touched on the FX thread
+    private NodeResult[] results = new NodeResult[0];
+    private final BitSet dirty = new BitSet();
+
+    private Run current;
+    private boolean rerunRequested = false;
+    private boolean autoRun = false;
+
+    private final AnimationTimer publisher = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            publish();
+        }
+    };
+
+    public DataflowEngine(GraphModel model) {
+        this(model, ForkJoinPool.commonPool());
+    }
+
+    public DataflowEngine(GraphModel model, ForkJoinPool pool) {
+        this.model = model;
+        this.pool = pool;
+        model.addListener(this);
+        model.forEachNode(dirty::set);
+    }
+
+    public void dispose() {
+        model.removeListener(this);
+        if (current != null) current.cancelled = true;
+        publisher.stop();
+    }
+
+    public void setOperator(int nodeId, NodeOperator operator) {
+        operators.put(nodeId, operator);
+        markDirty(nodeId);
+    }
+
+    public void addListener(ExecutionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ExecutionListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void markDirty(int nodeId) {
+        if (model.isNode(nodeId)) setDirty(nodeId);
+    }
+
+    // When on, every edit schedules a run of the affected subgraph for the next pulse
+    public void setAutoRun(boolean autoRun) {
+        this.autoRun = autoRun;
+        if (autoRun && !dirty.isEmpty()) UpdateScheduler.getInstance().schedule(this, this::run);
+    }
+
+    private void setDirty(int nodeId) {
+        dirty.set(nodeId);
+        if (autoRun) UpdateScheduler.getInstance().schedule(this, this::run);
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    public NodeResult getResult(int nodeId) {
+        return nodeId >= 0 && nodeId < results.length ? results[nodeId] : null;
+    }
+
+    @Override
+    public void nodeAdded(int id) {
+        setDirty(id);
+    }
+
+    @Override
+    public void nodeRemoved(int id) {
+        dirty.clear(id);
+        operators.remove(id);
+        if (id < results.length) results[id] = null;
+    }
+
+    @Override
+    public void edgeAdded(int edge, int from, int to) {
+        setDirty(to);
+    }
+
+    @Override
+    public void edgeRemoved(int edge, int from, int to) {
+        if (model.isNode(to)) setDirty(to);
+    }
+
+    // Executes everything that is dirty; during a run the request is queued behind it
+    public void run() {
+        if (current != null) {
+            rerunRequested = true;
+            return;
+        }
+        if (dirty.isEmpty()) return;
+
+        Run run = new Run(dirty);
+        dirty.clear();
+        if (run.total == 0) return;
+
+        current = run;
+        publisher.start();
+        run.start();
+    }
+
+    private void publish() {
+        Run run = current;
+        if (run == null) {
+            publisher.stop();
+            return;
+        }
+
+        List<NodeResult> batch = new ArrayList<>();
+        for (NodeResult result; (result = run.finished.poll()) != null; ) {
+            // A node edited during the run is dirty again, its stale result is dropped
+            if (!model.isNode(result.nodeId()) || dirty.get(result.nodeId())) continue;
+
+            if (result.nodeId() >= results.length) {
+                results = Arrays.copyOf(results, Math.max(result.nodeId() + 1, results.length * 2));
+            }
+            results[result.nodeId()] = result;
+            batch.add(result);
+        }
+
+        int completed = run.completed.get();
+        if (!batch.isEmpty()) {
+            for (ExecutionListener listener : listeners) {
+                listener.resultsPublished(batch, completed, run.total);
+            }
+        }
+
+        if (run.isDone() && run.finished.isEmpty()) {
+            current = null;
+            publisher.stop();
+            int[] cyclic = run.unfinished();
+            for (ExecutionListener listener : listeners) {
+                listener.runFinished(completed, cyclic);
+            }
+
+            if (rerunRequested) {
+                rerunRequested = false;
+                run();
+            }
+        }
+    }
+
+    // One execution over a snapshot of the affected subgraph; scheduled nodes are renumbered
+    // 0..total-1 and the fields below are written on the FX thread before any task starts
+    // and only read afterwards
+    private final class Run {
+        private final int[] nodes;
+        private final int[] inStart, inSources, inLocal;
+        private final int[] outStart, outTargets;
+        private final NodeOperator[] ops;
+        private final Object[] inputs;
+        private final boolean[] inputFailed;
+        private final AtomicIntegerArray remaining;
+        private final int total;
+
+        private final Object[] values;
+        private final Throwable[] errors;
+        private final AtomicInteger completed = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final ConcurrentLinkedQueue<NodeResult> finished = new ConcurrentLinkedQueue<>();
+        private volatile boolean cancelled = false;
+
+        Run(BitSet dirtyNodes) {
+            // Everything downstream of a dirty node has to run again. The walk starts at the
+            // dirty nodes, so a small edit costs its own subgraph and not the whole graph
+            Map<Integer, Integer> local = new HashMap<>();
+            int[] order = new int[Math.max(16, dirtyNodes.cardinality())];
+            int count = 0;
+            for (int id = dirtyNodes.nextSetBit(0); id >= 0; id = dirtyNodes.nextSetBit(id + 1)) {
+                if (model.isNode(id) && local.putIfAbsent(id, count) == null) {
+                    if (count == order.length) order = Arrays.copyOf(order, count * 2);
+                    order[count++] = id;
+                }
+            }
+            for (int next = 0; next < count; next++) {
+                int id = order[next];
+                for (int i = 0; i < model.outDegree(id); i++) {
+                    int target = model.edgeTo(model.outEdge(id, i));
+                    if (local.putIfAbsent(target, count) != null) continue;
+                    if (count == order.length) order = Arrays.copyOf(order, count * 2);
+                    order[count++] = target;
+                }
+            }
+            nodes = Arrays.copyOf(order, count);
+            total = count;
+
+            // Compressed adjacency of the scheduled nodes, so workers never read the mutable
+            // model; successors are always scheduled, predecessors may be clean
+            inStart = new int[count + 1];
+            outStart = new int[count + 1];
+            for (int k = 0; k < count; k++) {
+                inStart[k + 1] = inStart[k] + model.inDegree(nodes[k]);
+                outStart[k + 1] = outStart[k] + model.outDegree(nodes[k]);
+            }
+            inSources = new int[inStart[count]];
+            inLocal = new int[inStart[count]];
+            inputs = new Object[inStart[count]];
+            inputFailed = new boolean[inStart[count]];
+            outTargets = new int[outStart[count]];
+
+            ops = new NodeOperator[count];
+            values = new Object[count];
+            errors = new Throwable[count];
+            remaining = new AtomicIntegerArray(count);
+            for (int k = 0; k < count; k++) {
+                int id = nodes[k];
+                ops[k] = operators.getOrDefault(id, NodeOperator.PASS_THROUGH);
+
+                int waiting = 0;
+                for (int i = 0; i < model.inDegree(id); i++) {
+                    int slot = inStart[k] + i;
+                    int source = model.edgeFrom(model.inEdge(id, i));
+                    Integer scheduled = local.get(source);
+                    inSources[slot] = source;
+                    if (scheduled != null) {
+                        inLocal[slot] = scheduled;
+                        waiting++;
+                    } else {
+                        // Clean upstream nodes contribute their cached result
+                        NodeResult cached = getResult(source);
+                        inLocal[slot] = -1;
+                        inputs[slot] = cached == null ? null : cached.value();
+                        inputFailed[slot] = cached != null && cached.failed();
+                    }
+                }
+                remaining.set(k, waiting);
+
+                for (int i = 0; i < model.outDegree(id); i++) {
+                    outTargets[outStart[k] + i] = local.get(model.edgeTo(model.outEdge(id, i)));
+                }
+            }
+        }
+
+        // Sources are collected before the first submit; a worker finishing early would
+        // otherwise bring a successor to zero and have it submitted twice
+        void start() {
+            int[] ready = new int[total];
+            int count = 0;
+            for (int k = 0; k < total; k++) {
+                if (remaining.get(k) == 0) ready[count++] = k;
+            }
+            for (int i = 0; i < count; i++) submit(ready[i]);
+        }
+
+        private void submit(int k) {
+            inFlight.incrementAndGet();
+            pool.execute(() -> {
+                try {
+                    if (!cancelled) execute(k);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        private void execute(int k) {
+            List<Object> args = new ArrayList<>(inStart[k + 1] - inStart[k]);
+            Throwable upstreamError = null;
+            for (int i = inStart[k]; i < inStart[k + 1]; i++) {
+                int source = inLocal[i];
+                if (source >= 0) {
+                    args.add(values[source]);
+                    if (errors[source] != null) upstreamError = errors[source];
+                } else {
+                    args.add(inputs[i]);
+                    if (inputFailed[i]) upstreamError = new IllegalStateException("Upstream node " + inSources[i] + " failed");
+                }
+            }
+
+            Object value = null;
+            Throwable error = upstreamError;
+            if (error == null) {
+                // Errors too: a node that never completes would leave its successors
+                // waiting and be reported as part of a cycle
+                try {
+                    value = ops[k].apply(args);
+                } catch (Throwable e) {
+                    error = e;
+                }
+            }
+            values[k] = value;
+            errors[k] = error;
+            finished.add(new NodeResult(nodes[k], value, error));
+            completed.incrementAndGet();
+
+            // The decrement publishes values[k] to whichever worker picks up the successor
+            for (int i = outStart[k]; i < outStart[k + 1]; i++) {
+                int target = outTargets[i];
+                if (remaining.decrementAndGet(target) == 0) submit(target);
+            }
+        }
+
+        // Successors are submitted before their predecessor leaves inFlight, so zero means
+        // nothing can start any more; whatever has not completed then waits on a cycle
+        boolean isDone() {
+            return inFlight.get() == 0;
+        }
+
+        int[] unfinished() {
+            List<Integer> left = new ArrayList<>();
+            for (int k = 0; k < total; k++) {
+                if (remaining.get(k) > 0) left.add(nodes[k]);
+            }
+            return left.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
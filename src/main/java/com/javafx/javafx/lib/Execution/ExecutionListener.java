@@ -0,0 +1,14 @@
+package com.javafx.javafx.lib.Execution;
+
+import java.util.List;
+
+// Called on the FX thread
+public interface ExecutionListener {
+
+    // At most once per pulse with everything that finished since the last call
+    void resultsPublished(List<NodeResult> results, int completed, int total);
+
+    // cyclicNodes lists the scheduled nodes that could not run because they sit on or behind a cycle
+    default void runFinished(int completed, int[] cyclicNodes) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.javafx.javafx.lib.Execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// What a node computes. Runs on a worker thread, so it must not touch the scene graph
+@FunctionalInterface
+public interface NodeOperator {
+
+    // Inputs are the upstream results, one per incoming wire
+    Object apply(List<Object> inputs) throws Exception;
+
+    // Inputs may be null, from an operator that returned nothing
+    NodeOperator PASS_THROUGH = inputs -> inputs.size() == 1 ? inputs.get(0) : Collections.unmodifiableList(new ArrayList<>(inputs));
+}
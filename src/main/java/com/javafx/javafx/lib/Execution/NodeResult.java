@@ -0,0 +1,9 @@
+package com.javafx.javafx.lib.Execution;
+
+// Outcome of one node in a run; error is set when the operator or an upstream node failed
+public record NodeResult(int nodeId, Object value, Throwable error) {
+
+    public boolean failed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.javafx.javafx.lib.GraphNode;
+
+public enum DetailLevel {
+    FULL(0.6),
+    REDUCED(0.3),
+    MINIMAL(0);
+
+    private final double minScale;
+
+    DetailLevel(double minScale) {
+        this.minScale = minScale;
+    }
+
+    public static DetailLevel forScale(double scale) {
+        for (DetailLevel level : values()) {
+            if (scale >= level.minScale) return level;
+        }
+        return MINIMAL;
+    }
+}
@@ -2,52 +2,47 @@ package com.javafx.javafx.lib.GraphNode;
 
 import com.javafx.javafx.lib.Connectors.ConnectionManager;
 import com.javafx.javafx.lib.Connectors.ConnectorPoint;
-import com.javafx.javafx.lib.Selection.GraphNodeSelectionManager;
-import com.javafx.javafx.lib.Menu.MenuHandler;
-import javafx.geometry.Point2D;
-import javafx.scene.Cursor;
-import javafx.scene.Group;
-import javafx.scene.control.ContextMenu;
+import com.javafx.javafx.lib.History.EditJournal;
+import com.javafx.javafx.lib.Metrics.EditorEvents;
+import com.javafx.javafx.lib.Metrics.EditorMetrics;
+import com.javafx.javafx.lib.Metrics.Operation;
+import com.javafx.javafx.lib.Viewport.LabelPool;
 import javafx.scene.control.Label;
-import javafx.scene.control.MenuItem;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Shape;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 
 public class GraphNode extends StackPane {
 
     private final Shape background;
-    private final AnchorPane canvas;
     private final ConnectionManager connectionManager;
-    private final boolean allowUnlimitedConnections;
     private final int maxConnections;
     private final ConnectorPoint inputConnector;
     private final ConnectorPoint outputConnector;
-    private ContextMenu contextMenu;
-    private double startMouseX, startMouseY;
-    private final Map<GraphNode, Point2D> graphNodePositions = new HashMap<>();
-    private final GraphNodeSelectionManager selectionManager = GraphNodeSelectionManager.getInstance();
-    private final AnchorPane wrapperPane;
+    private final String title;
+    private Label label;
+    private DetailLevel detailLevel = DetailLevel.FULL;
+    private final double arcWidth, arcHeight;
+    private int modelId = -1;
+    private int historyKey = -1;
 
 
     public GraphNode(String title, int maxConnections, ConnectionManager connectionManager, Shape background, AnchorPane canvas, AnchorPane wrapperPane) {
-        this.allowUnlimitedConnections = maxConnections <= 0;
         this.maxConnections = maxConnections;
         this.connectionManager = connectionManager;
         this.background = background;
-        this.canvas = canvas;
-        this.wrapperPane = wrapperPane;
+        this.title = title;
+        this.arcWidth = background instanceof Rectangle r ? r.getArcWidth() : 0;
+        this.arcHeight = background instanceof Rectangle r ? r.getArcHeight() : 0;
 
-        inputConnector = new ConnectorPoint(this, connectionManager, ConnectorPoint.Type.INPUT);
-        outputConnector = new ConnectorPoint(this, connectionManager, ConnectorPoint.Type.OUTPUT);
+        inputConnector = new ConnectorPoint(this, ConnectorPoint.Type.INPUT);
+        outputConnector = new ConnectorPoint(this, ConnectorPoint.Type.OUTPUT);
 
-        menu();
-
-        Label label = new Label(title);
+        label = new Label(title);
         label.setTextFill(Color.WHITE);
 
         getChildren().addAll(background, label);
@@ -58,104 +53,88 @@ public class GraphNode extends StackPane {
 
         getChildren().addAll(inputConnector, outputConnector);
 
-        // Node dragging handlers
-        // Assuming this code is inside GraphNode class
+        // Menu, drag state and the delete key are shared by all nodes on the canvas;
+        // mouse input reaches nodes through the canvas input dispatcher
+        GraphNodeContext.of(canvas, wrapperPane, connectionManager);
+    }
 
-        setOnMousePressed(this::onMousePressed);
-        setOnMouseDragged(this::onMouseDragged);
-        setOnMouseReleased(e -> {
-            graphNodePositions.clear();
-            canvas.setCursor(Cursor.DEFAULT);
-        });
+    // Id of this node in the ConnectionManager's GraphModel, -1 while unregistered
+    public int getModelId() {
+        return modelId;
+    }
 
+    public void setModelId(int modelId) {
+        this.modelId = modelId;
+    }
 
-        canvas.setOnKeyPressed(event -> {
-            switch (event.getCode()) {
-                case DELETE, BACK_SPACE -> {
-                    deleteSelectedNodes(canvas, connectionManager);
-                }
-            }
-        });
+    // Stable across undo/redo, unlike the model id; -1 until the journal first refers to the node
+    public int getHistoryKey() {
+        return historyKey;
+    }
 
+    public void setHistoryKey(int historyKey) {
+        this.historyKey = historyKey;
     }
 
-    private void menu() {
-        MenuItem deleteNodeItem = new MenuItem("delete Node");
-        contextMenu = new ContextMenu(deleteNodeItem);
-        contextMenu.setAutoHide(true);
+    public String getTitle() {
+        return title;
+    }
 
-        new MenuHandler.Builder(this, contextMenu).useRightClick(true).build();
+    // Only the label is pooled while the node is off screen; the node itself, its background
+    // and its connectors stay, since wires, the selection and the history refer to them
+    public void releaseLabel(LabelPool pool) {
+        if (label == null) return;
 
-        deleteNodeItem.setOnAction(e -> {
-            deleteSelectedNodes(canvas, connectionManager);
-        });
+        getChildren().remove(label);
+        pool.release(label);
+        label = null;
     }
 
-    private void onMousePressed(MouseEvent e) {
-        if (!(e.getTarget() instanceof ConnectorPoint)) {
-            switch (e.getButton()) {
-                case PRIMARY -> {
-                    contextMenu.hide();
-                    canvas.setCursor(Cursor.CLOSED_HAND);
-                    if (!selectionManager.getSelectedNodes().contains(this)) {
-                        selectionManager.clear();
-                        selectionManager.select(this);
-                    }
-
-                    // Convert scene coordinates to local coords of the wrapperPane (AnchorPane)
-                    Point2D parentPoint = wrapperPane.sceneToLocal(e.getSceneX(), e.getSceneY());
+    public void bindLabel(LabelPool pool) {
+        if (label != null) return;
 
-                    startMouseX = parentPoint.getX();
-                    startMouseY = parentPoint.getY();
+        label = pool.acquire(title);
+        label.setVisible(detailLevel == DetailLevel.FULL);
+        // Directly above the background, below the connectors
+        getChildren().add(getChildren().indexOf(background) + 1, label);
+    }
 
-                    graphNodePositions.clear();
-                    for (GraphNode node : selectionManager.getSelectedNodes()) {
-                        graphNodePositions.put(node, new Point2D(node.getLayoutX(), node.getLayoutY()));
-                    }
+    public void setDetailLevel(DetailLevel level) {
+        if (detailLevel == level) return;
+        detailLevel = level;
 
-                    e.consume();
-                }
-                case SECONDARY -> {
-                    contextMenu.show(this, e.getScreenX(), e.getScreenY());
-                    e.consume();
-                }
-            }
+        if (label != null) {
+            label.setVisible(level == DetailLevel.FULL);
+        }
+        inputConnector.setVisible(level != DetailLevel.MINIMAL);
+        outputConnector.setVisible(level != DetailLevel.MINIMAL);
+
+        if (background instanceof Rectangle rectangle) {
+            // Square corners are considerably cheaper to rasterize
+            boolean flat = level == DetailLevel.MINIMAL;
+            rectangle.setArcWidth(flat ? 0 : arcWidth);
+            rectangle.setArcHeight(flat ? 0 : arcHeight);
         }
     }
 
-    private void onMouseDragged(MouseEvent e) {
-        if (!(e.getTarget() instanceof ConnectorPoint)) {
-            Point2D parentPoint = wrapperPane.sceneToLocal(e.getSceneX(), e.getSceneY());
-
-            double deltaX = parentPoint.getX() - startMouseX;
-            double deltaY = parentPoint.getY() - startMouseY;
-
-            for (Map.Entry<GraphNode, Point2D> entry : graphNodePositions.entrySet()) {
-                GraphNode node = entry.getKey();
-                Point2D original = entry.getValue();
-                node.setLayoutX(original.getX() + deltaX);
-                node.setLayoutY(original.getY() + deltaY);
-            }
-
-            connectionManager.updateConnections();
-            e.consume();
-        }
+    public DetailLevel getDetailLevel() {
+        return detailLevel;
     }
 
     public void setSelected(boolean selected) {
         background.setStroke(selected ? Color.YELLOW : Color.TRANSPARENT);
     }
 
-    public static void clearSelection() {
-        GraphNodeSelectionManager.getInstance().clear();
-    }
-
     public ConnectorPoint getConnector(ConnectorPoint.Type type) {
         return (type == ConnectorPoint.Type.INPUT) ? inputConnector : outputConnector;
     }
 
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
     public boolean allowsMoreConnections(int current) {
-        return allowUnlimitedConnections || current < maxConnections;
+        return maxConnections <= 0 || current < maxConnections;
     }
 
     public ConnectionManager getConnectionManager() {
@@ -163,13 +142,23 @@ public class GraphNode extends StackPane {
     }
 
     public static void deleteSelectedNodes(AnchorPane canvas, ConnectionManager connectionManager) {
-        var selectedNodes = GraphNodeSelectionManager.getInstance().getSelectedNodes();
-
-        for (GraphNode node : selectedNodes) {
-            connectionManager.removeConnectionsForNode(node);
-            canvas.getChildren().remove(node);
-        }
-
-        GraphNodeSelectionManager.getInstance().clear();
+        Set<GraphNode> selectedNodes = new HashSet<>(connectionManager.getSelection().getSelectedNodes());
+        if (selectedNodes.isEmpty()) return;
+
+        long start = EditorMetrics.getInstance().start();
+        EditorEvents.BulkDelete event = new EditorEvents.BulkDelete();
+        event.begin();
+        int wiresBefore = connectionManager.getModel().edgeCount();
+
+        EditJournal journal = connectionManager.getJournal();
+        if (journal != null) journal.recordDeleted(selectedNodes);
+        connectionManager.removeNodes(selectedNodes);
+        // A single children mutation; removeAll looks nodes up in the set instead of searching the list
+        canvas.getChildren().removeAll(selectedNodes);
+
+        event.nodes = selectedNodes.size();
+        event.wires = wiresBefore - connectionManager.getModel().edgeCount();
+        event.commit();
+        EditorMetrics.getInstance().record(Operation.DELETE, start);
     }
 }
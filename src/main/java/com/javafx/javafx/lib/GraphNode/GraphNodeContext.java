@@ -0,0 +1,129 @@
+package com.javafx.javafx.lib.GraphNode;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.History.EditJournal;
+import com.javafx.javafx.lib.Metrics.EditorEvents;
+import com.javafx.javafx.lib.Scheduling.UpdateScheduler;
+import com.javafx.javafx.lib.Selection.GraphNodeSelectionManager;
+import javafx.geometry.Point2D;
+import javafx.scene.Cursor;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.layout.AnchorPane;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Everything the nodes of one canvas have in common: the context menu and the state of
+// the drag in flight. Nodes carry no handlers of their own, the canvas input dispatcher
+// calls in here, which keeps them small and quick to build in large graphs
+public final class GraphNodeContext {
+
+    private final AnchorPane canvas;
+    private final AnchorPane wrapperPane;
+    private final ConnectionManager connectionManager;
+    private final GraphNodeSelectionManager selectionManager;
+    private final ContextMenu contextMenu;
+
+    // Only one drag can be in flight per canvas
+    private final Map<GraphNode, Point2D> dragStartPositions = new HashMap<>();
+    private GraphNode grabbed;
+    private double startMouseX, startMouseY;
+
+    private GraphNodeContext(AnchorPane canvas, AnchorPane wrapperPane, ConnectionManager connectionManager) {
+        this.canvas = canvas;
+        this.wrapperPane = wrapperPane;
+        this.connectionManager = connectionManager;
+        this.selectionManager = connectionManager.getSelection();
+
+        MenuItem deleteNodeItem = new MenuItem("delete Node");
+        deleteNodeItem.setOnAction(e -> GraphNode.deleteSelectedNodes(canvas, connectionManager));
+        contextMenu = new ContextMenu(deleteNodeItem);
+        contextMenu.setAutoHide(true);
+
+        canvas.setOnKeyPressed(event -> {
+            switch (event.getCode()) {
+                case DELETE, BACK_SPACE -> GraphNode.deleteSelectedNodes(canvas, connectionManager);
+            }
+        });
+    }
+
+    // Created with the first node of a canvas and kept in the canvas' properties
+    public static GraphNodeContext of(AnchorPane canvas, AnchorPane wrapperPane, ConnectionManager connectionManager) {
+        return (GraphNodeContext) canvas.getProperties().computeIfAbsent(GraphNodeContext.class,
+                key -> new GraphNodeContext(canvas, wrapperPane, connectionManager));
+    }
+
+    // Points are in scene coordinates
+    public void beginDrag(GraphNode node, double sceneX, double sceneY, boolean toggle) {
+        contextMenu.hide();
+        canvas.setCursor(Cursor.CLOSED_HAND);
+        if (toggle) {
+            selectionManager.toggle(node);
+        } else if (!selectionManager.isSelected(node)) {
+            selectionManager.select(node);
+        }
+
+        // Convert scene coordinates to local coords of the wrapperPane (AnchorPane)
+        Point2D parentPoint = wrapperPane.sceneToLocal(sceneX, sceneY);
+        startMouseX = parentPoint.getX();
+        startMouseY = parentPoint.getY();
+
+        grabbed = node;
+        dragStartPositions.clear();
+        for (GraphNode selected : selectionManager.getSelectedNodes()) {
+            dragStartPositions.put(selected, new Point2D(selected.getLayoutX(), selected.getLayoutY()));
+        }
+    }
+
+    public void drag(double sceneX, double sceneY) {
+        if (grabbed == null) return;
+
+        Point2D parentPoint = wrapperPane.sceneToLocal(sceneX, sceneY);
+        double deltaX = parentPoint.getX() - startMouseX;
+        double deltaY = parentPoint.getY() - startMouseY;
+
+        // Deltas are relative to the drag start, so only the latest one per pulse matters
+        UpdateScheduler.getInstance().schedule(this, () -> applyDrag(deltaX, deltaY));
+    }
+
+    public void endDrag() {
+        UpdateScheduler.getInstance().flush();
+        recordDrag();
+        dragStartPositions.clear();
+        grabbed = null;
+        canvas.setCursor(Cursor.DEFAULT);
+    }
+
+    public void showMenu(GraphNode node, double screenX, double screenY) {
+        contextMenu.show(node, screenX, screenY);
+    }
+
+    private void recordDrag() {
+        Point2D start = grabbed == null ? null : dragStartPositions.get(grabbed);
+        EditJournal journal = connectionManager.getJournal();
+        if (start == null || journal == null) return;
+
+        journal.recordMoved(dragStartPositions.keySet(),
+                grabbed.getLayoutX() - start.getX(), grabbed.getLayoutY() - start.getY());
+    }
+
+    private void applyDrag(double deltaX, double deltaY) {
+        EditorEvents.NodeDrag event = new EditorEvents.NodeDrag();
+        event.begin();
+
+        for (Map.Entry<GraphNode, Point2D> entry : dragStartPositions.entrySet()) {
+            GraphNode node = entry.getKey();
+            Point2D original = entry.getValue();
+            node.setLayoutX(original.getX() + deltaX);
+            node.setLayoutY(original.getY() + deltaY);
+        }
+
+        connectionManager.updateConnectionsFor(dragStartPositions.keySet());
+
+        event.nodes = dragStartPositions.size();
+        event.deltaX = deltaX;
+        event.deltaY = deltaY;
+        event.commit();
+    }
+}
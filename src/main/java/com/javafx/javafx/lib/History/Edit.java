@@ -0,0 +1,17 @@
+package com.javafx.javafx.lib.History;
+
+// One journal entry. Nodes are referred to by history key, so entries stay valid when a
+// node is deleted and re-created with a different model id
+interface Edit {
+
+    void undo(EditJournal journal);
+
+    void redo(EditJournal journal);
+
+    // Rough heap footprint, used for the journal's memory cap
+    long sizeInBytes();
+
+    static long arrayBytes(int length, int elementBytes) {
+        return 16 + (long) length * elementBytes;
+    }
+}
@@ -0,0 +1,301 @@
+package com.javafx.javafx.lib.History;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Model.GraphModel;
+import com.javafx.javafx.lib.Persistence.GraphStore;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Undo/redo history of compact edit deltas. Once the entries exceed the memory cap the
+// oldest undo entries are dropped, so long sessions keep a bounded history
+public class EditJournal {
+
+    private final ConnectionManager connectionManager;
+    private final Pane content;
+    private final GraphStore.NodeFactory nodeFactory;
+    private final Deque<Edit> undoStack = new ArrayDeque<>();
+    private final Deque<Edit> redoStack = new ArrayDeque<>();
+    private long maxBytes;
+    private long usedBytes = 0;
+
+    // History keys are never reused, unlike model ids
+    private final Map<Integer, GraphNode> byKey = new HashMap<>();
+    private int nextKey = 0;
+
+    public EditJournal(ConnectionManager connectionManager, Pane content, GraphStore.NodeFactory nodeFactory, long maxBytes) {
+        this.connectionManager = connectionManager;
+        this.content = content;
+        this.nodeFactory = nodeFactory;
+        this.maxBytes = maxBytes;
+
+        // Nodes leaving the graph, deleted, evicted with their tile or cleared, must not be kept
+        // alive by their key; undoing a deletion puts new nodes back under the old keys
+        connectionManager.getModel().addListener(new GraphModel.Listener() {
+            @Override
+            public void nodeRemoved(int id) {
+                GraphNode node = connectionManager.getNode(id);
+                if (node != null && node.getHistoryKey() >= 0) byKey.remove(node.getHistoryKey(), node);
+            }
+        });
+    }
+
+    public void recordCreated(GraphNode node) {
+        record(new Edits.AddNodes(capture(List.of(node))));
+    }
+
+    // Must be called before the nodes are removed, so their wires are still known
+    public void recordDeleted(Collection<GraphNode> nodes) {
+        if (nodes.isEmpty()) return;
+        record(new Edits.RemoveNodes(capture(nodes)));
+    }
+
+    public void recordMoved(Collection<GraphNode> nodes, double dx, double dy) {
+        if (nodes.isEmpty() || (dx == 0 && dy == 0)) return;
+        record(new Edits.MoveNodes(keysOf(nodes), dx, dy));
+    }
+
+    // Positions are indexed like nodes; nodes that did not move are left out of the entry
+    public void recordPlaced(List<GraphNode> nodes, double[] fromX, double[] fromY, double[] toX, double[] toY) {
+        int n = 0;
+        int[] moved = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            if (fromX[i] != toX[i] || fromY[i] != toY[i]) moved[n++] = i;
+        }
+        if (n == 0) return;
+
+        int[] keys = new int[n];
+        double[] oldX = new double[n], oldY = new double[n];
+        double[] newX = new double[n], newY = new double[n];
+        for (int m = 0; m < n; m++) {
+            int i = moved[m];
+            keys[m] = keyOf(nodes.get(i));
+            oldX[m] = fromX[i];
+            oldY[m] = fromY[i];
+            newX[m] = toX[i];
+            newY[m] = toY[i];
+        }
+        record(new Edits.PlaceNodes(keys, oldX, oldY, newX, newY));
+    }
+
+    public void recordConnected(GraphNode from, GraphNode to) {
+        record(new Edits.AddWires(new int[]{keyOf(from)}, new int[]{keyOf(to)}));
+    }
+
+    public void recordDisconnected(Collection<ConnectionRecord> wires) {
+        if (wires.isEmpty()) return;
+
+        int[] from = new int[wires.size()];
+        int[] to = new int[wires.size()];
+        int i = 0;
+        for (ConnectionRecord c : wires) {
+            from[i] = keyOf(c.from());
+            to[i] = keyOf(c.to());
+            i++;
+        }
+        record(new Edits.RemoveWires(from, to));
+    }
+
+    // A node that was evicted with its tile and has come back as a new view takes over the
+    // key of the old one, so the history still reaches it
+    public void adopt(GraphNode node, int key) {
+        node.setHistoryKey(key);
+        byKey.put(key, node);
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    public void undo() {
+        Edit edit = undoStack.pollLast();
+        if (edit == null) return;
+
+        edit.undo(this);
+        redoStack.addLast(edit);
+    }
+
+    public void redo() {
+        Edit edit = redoStack.pollLast();
+        if (edit == null) return;
+
+        edit.redo(this);
+        undoStack.addLast(edit);
+    }
+
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        usedBytes = 0;
+        byKey.clear();
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int size() {
+        return undoStack.size() + redoStack.size();
+    }
+
+    private void record(Edit edit) {
+        // A new edit invalidates everything that could have been redone
+        for (Edit dropped : redoStack) usedBytes -= dropped.sizeInBytes();
+        redoStack.clear();
+
+        undoStack.addLast(edit);
+        usedBytes += edit.sizeInBytes();
+        trim();
+    }
+
+    private void trim() {
+        while (usedBytes > maxBytes && !undoStack.isEmpty()) {
+            usedBytes -= undoStack.pollFirst().sizeInBytes();
+        }
+    }
+
+    private int keyOf(GraphNode node) {
+        if (node.getHistoryKey() < 0) node.setHistoryKey(nextKey++);
+        byKey.put(node.getHistoryKey(), node);
+        return node.getHistoryKey();
+    }
+
+    private int[] keysOf(Collection<GraphNode> nodes) {
+        int[] keys = new int[nodes.size()];
+        int i = 0;
+        for (GraphNode node : nodes) keys[i++] = keyOf(node);
+        return keys;
+    }
+
+    // Null when the node is gone for reasons outside the journal, e.g. an evicted tile
+    private GraphNode resolve(int key) {
+        GraphNode node = byKey.get(key);
+        return node != null && node.getModelId() >= 0 ? node : null;
+    }
+
+    private NodeBatch capture(Collection<GraphNode> nodes) {
+        int n = nodes.size();
+        int[] keys = new int[n];
+        double[] x = new double[n];
+        double[] y = new double[n];
+        String[] titles = new String[n];
+        int[] maxConnections = new int[n];
+
+        Set<ConnectionRecord> wires = Collections.newSetFromMap(new IdentityHashMap<>());
+        int i = 0;
+        for (GraphNode node : nodes) {
+            keys[i] = keyOf(node);
+            x[i] = node.getLayoutX();
+            y[i] = node.getLayoutY();
+            titles[i] = node.getTitle();
+            maxConnections[i] = node.getMaxConnections();
+            wires.addAll(connectionManager.getIncidentConnections(node));
+            i++;
+        }
+
+        int[] wireFrom = new int[wires.size()];
+        int[] wireTo = new int[wires.size()];
+        int w = 0;
+        for (ConnectionRecord c : wires) {
+            wireFrom[w] = keyOf(c.from());
+            wireTo[w] = keyOf(c.to());
+            w++;
+        }
+        return new NodeBatch(keys, x, y, titles, maxConnections, wireFrom, wireTo);
+    }
+
+    void restoreNodes(NodeBatch batch) {
+        List<GraphNode> nodes = new ArrayList<>(batch.keys().length);
+        for (int i = 0; i < batch.keys().length; i++) {
+            GraphNode node = nodeFactory.create(batch.titles()[i], batch.maxConnections()[i]);
+            node.setLayoutX(batch.x()[i]);
+            node.setLayoutY(batch.y()[i]);
+            node.setHistoryKey(batch.keys()[i]);
+            byKey.put(batch.keys()[i], node);
+            nodes.add(node);
+        }
+
+        content.getChildren().addAll(nodes);
+        for (GraphNode node : nodes) {
+            connectionManager.registerNode(node);
+        }
+        connect(batch.wireFrom(), batch.wireTo());
+    }
+
+    void removeNodes(int[] keys) {
+        Set<GraphNode> nodes = new HashSet<>();
+        for (int key : keys) {
+            GraphNode node = resolve(key);
+            if (node != null) nodes.add(node);
+        }
+
+        connectionManager.removeNodes(nodes);
+        content.getChildren().removeAll(nodes);
+    }
+
+    void moveNodes(int[] keys, double dx, double dy) {
+        List<GraphNode> nodes = new ArrayList<>(keys.length);
+        for (int key : keys) {
+            GraphNode node = resolve(key);
+            if (node == null) continue;
+            node.setLayoutX(node.getLayoutX() + dx);
+            node.setLayoutY(node.getLayoutY() + dy);
+            nodes.add(node);
+        }
+        connectionManager.updateConnectionsFor(nodes);
+    }
+
+    void placeNodes(int[] keys, double[] x, double[] y) {
+        List<GraphNode> nodes = new ArrayList<>(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            GraphNode node = resolve(keys[i]);
+            if (node == null) continue;
+            node.setLayoutX(x[i]);
+            node.setLayoutY(y[i]);
+            nodes.add(node);
+        }
+        connectionManager.updateConnectionsFor(nodes);
+    }
+
+    void connect(int[] from, int[] to) {
+        for (int i = 0; i < from.length; i++) {
+            GraphNode source = resolve(from[i]);
+            GraphNode target = resolve(to[i]);
+            if (source != null && target != null) connectionManager.connect(source, target);
+        }
+    }
+
+    void disconnect(int[] from, int[] to) {
+        List<ConnectionRecord> wires = new ArrayList<>(from.length);
+        for (int i = 0; i < from.length; i++) {
+            GraphNode source = resolve(from[i]);
+            GraphNode target = resolve(to[i]);
+            if (source == null || target == null) continue;
+
+            ConnectionRecord c = connectionManager.getConnections().get(source, target);
+            if (c != null) wires.add(c);
+        }
+        connectionManager.removeConnections(wires);
+    }
+}
@@ -0,0 +1,111 @@
+package com.javafx.javafx.lib.History;
+
+final class Edits {
+
+    private Edits() {
+    }
+
+    record AddNodes(NodeBatch nodes) implements Edit {
+        @Override
+        public void undo(EditJournal journal) {
+            journal.removeNodes(nodes.keys());
+        }
+
+        @Override
+        public void redo(EditJournal journal) {
+            journal.restoreNodes(nodes);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + nodes.sizeInBytes();
+        }
+    }
+
+    record RemoveNodes(NodeBatch nodes) implements Edit {
+        @Override
+        public void undo(EditJournal journal) {
+            journal.restoreNodes(nodes);
+        }
+
+        @Override
+        public void redo(EditJournal journal) {
+            journal.removeNodes(nodes.keys());
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16 + nodes.sizeInBytes();
+        }
+    }
+
+    // A drag moves every node by the same delta, so one delta covers the whole selection
+    record MoveNodes(int[] keys, double dx, double dy) implements Edit {
+        @Override
+        public void undo(EditJournal journal) {
+            journal.moveNodes(keys, -dx, -dy);
+        }
+
+        @Override
+        public void redo(EditJournal journal) {
+            journal.moveNodes(keys, dx, dy);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 32 + Edit.arrayBytes(keys.length, 4);
+        }
+    }
+
+    // A layout moves every node differently, so both ends are stored per node
+    record PlaceNodes(int[] keys, double[] fromX, double[] fromY, double[] toX, double[] toY) implements Edit {
+        @Override
+        public void undo(EditJournal journal) {
+            journal.placeNodes(keys, fromX, fromY);
+        }
+
+        @Override
+        public void redo(EditJournal journal) {
+            journal.placeNodes(keys, toX, toY);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 40 + Edit.arrayBytes(keys.length, 4) + 4 * Edit.arrayBytes(keys.length, 8);
+        }
+    }
+
+    record AddWires(int[] from, int[] to) implements Edit {
+        @Override
+        public void undo(EditJournal journal) {
+            journal.disconnect(from, to);
+        }
+
+        @Override
+        public void redo(EditJournal journal) {
+            journal.connect(from, to);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 24 + 2 * Edit.arrayBytes(from.length, 4);
+        }
+    }
+
+    record RemoveWires(int[] from, int[] to) implements Edit {
+        @Override
+        public void undo(EditJournal journal) {
+            journal.connect(from, to);
+        }
+
+        @Override
+        public void redo(EditJournal journal) {
+            journal.disconnect(from, to);
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 24 + 2 * Edit.arrayBytes(from.length, 4);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.javafx.javafx.lib.History;
+
+// Everything needed to re-create a set of nodes and the wires that touched them
+record NodeBatch(int[] keys, double[] x, double[] y, String[] titles, int[] maxConnections,
+                 int[] wireFrom, int[] wireTo) {
+
+    long sizeInBytes() {
+        long strings = 0;
+        for (String title : titles) strings += 40 + 2L * title.length();
+        return 48 + Edit.arrayBytes(keys.length, 4) + 2 * Edit.arrayBytes(x.length, 8)
+                + Edit.arrayBytes(titles.length, 4) + strings + Edit.arrayBytes(maxConnections.length, 4)
+                + 2 * Edit.arrayBytes(wireFrom.length, 4);
+    }
+}
@@ -0,0 +1,169 @@
+package com.javafx.javafx.lib.Input;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.Connectors.ConnectorPoint;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.GraphNode.GraphNodeContext;
+import com.javafx.javafx.lib.Selection.SelectionBox;
+import javafx.geometry.Point2D;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.Pane;
+
+// The only mouse handling for the editor canvas. A press picks the gesture from the button
+// and what lies under the mouse, found through the spatial indexes rather than per-node
+// handlers, and every drag and the release go to that gesture until it ends. Nodes,
+// connectors and wires carry no handlers, so the cost per event and the handler memory
+// stay the same however large the graph is
+public class CanvasInputDispatcher {
+
+    public interface PanListener {
+        void panned(double deltaX, double deltaY);
+    }
+
+    private final Pane viewport;
+    private final AnchorPane content;
+    private final ConnectionManager connectionManager;
+    private final SelectionBox selectionBox;
+    private final GraphNodeContext nodes;
+    private PanListener panListener = (deltaX, deltaY) -> {};
+
+    private InteractionMode mode = InteractionMode.IDLE;
+    private MouseButton gestureButton;
+    private ConnectorPoint pressedConnector;
+    private double lastSceneX, lastSceneY;
+
+    public CanvasInputDispatcher(Pane viewport, AnchorPane content, ConnectionManager connectionManager, SelectionBox selectionBox) {
+        this.viewport = viewport;
+        this.content = content;
+        this.connectionManager = connectionManager;
+        this.selectionBox = selectionBox;
+        this.nodes = GraphNodeContext.of(content, content, connectionManager);
+
+        // Filters, so a gesture keeps its events whatever node ends up under the mouse
+        viewport.addEventFilter(MouseEvent.MOUSE_PRESSED, this::onPressed);
+        viewport.addEventFilter(MouseEvent.MOUSE_DRAGGED, this::onDragged);
+        viewport.addEventFilter(MouseEvent.MOUSE_RELEASED, this::onReleased);
+    }
+
+    public void setOnPan(PanListener panListener) {
+        this.panListener = panListener;
+    }
+
+    public InteractionMode getMode() {
+        return mode;
+    }
+
+    private void onPressed(MouseEvent e) {
+        // Further buttons pressed during a gesture are ignored, as are presses on controls
+        if (mode != InteractionMode.IDLE || !isCanvasTarget(e)) return;
+
+        Point2D point = content.sceneToLocal(e.getSceneX(), e.getSceneY());
+        InteractionMode next = switch (e.getButton()) {
+            case MIDDLE -> beginPan(e);
+            case SECONDARY -> beginSecondary(e, point);
+            case PRIMARY -> beginPrimary(e, point);
+            default -> InteractionMode.IDLE;
+        };
+
+        if (next != InteractionMode.IDLE) {
+            mode = next;
+            gestureButton = e.getButton();
+        }
+        e.consume();
+    }
+
+    private InteractionMode beginPan(MouseEvent e) {
+        viewport.setCursor(Cursor.CLOSED_HAND);
+        lastSceneX = e.getSceneX();
+        lastSceneY = e.getSceneY();
+        return InteractionMode.PAN;
+    }
+
+    private InteractionMode beginSecondary(MouseEvent e, Point2D point) {
+        GraphNode node = connectionManager.findNodeAt(point.getX(), point.getY());
+        if (node != null) {
+            nodes.showMenu(node, e.getScreenX(), e.getScreenY());
+            return InteractionMode.IDLE;
+        }
+
+        content.setCursor(Cursor.HAND);
+        connectionManager.beginSweep(point.getX(), point.getY());
+        return InteractionMode.SWEEP_CUT;
+    }
+
+    private InteractionMode beginPrimary(MouseEvent e, Point2D point) {
+        ConnectorPoint connector = connectionManager.findConnectorAt(point.getX(), point.getY());
+        if (connector != null) {
+            // Clicking two connectors connects them, dragging from one draws a wire
+            pressedConnector = connector;
+            connectionManager.handleConnectorClick(connector);
+            return InteractionMode.CONNECT;
+        }
+
+        GraphNode node = connectionManager.findNodeAt(point.getX(), point.getY());
+        if (node != null) {
+            nodes.beginDrag(node, e.getSceneX(), e.getSceneY(), e.isShiftDown());
+            return InteractionMode.NODE_DRAG;
+        }
+
+        selectionBox.begin(point.getX(), point.getY());
+        return InteractionMode.MARQUEE;
+    }
+
+    private void onDragged(MouseEvent e) {
+        if (mode == InteractionMode.IDLE) return;
+
+        Point2D point = content.sceneToLocal(e.getSceneX(), e.getSceneY());
+        switch (mode) {
+            case PAN -> {
+                panListener.panned(e.getSceneX() - lastSceneX, e.getSceneY() - lastSceneY);
+                lastSceneX = e.getSceneX();
+                lastSceneY = e.getSceneY();
+            }
+            case NODE_DRAG -> nodes.drag(e.getSceneX(), e.getSceneY());
+            case CONNECT -> {
+                if (!connectionManager.isConnectionDragActive()) {
+                    connectionManager.startConnection(pressedConnector);
+                }
+                connectionManager.updateConnectionDrag(point.getX(), point.getY());
+            }
+            case MARQUEE -> selectionBox.update(point.getX(), point.getY());
+            case SWEEP_CUT -> connectionManager.updateSweep(point.getX(), point.getY());
+        }
+        e.consume();
+    }
+
+    private void onReleased(MouseEvent e) {
+        if (mode == InteractionMode.IDLE || e.getButton() != gestureButton) return;
+
+        Point2D point = content.sceneToLocal(e.getSceneX(), e.getSceneY());
+        switch (mode) {
+            case PAN -> viewport.setCursor(Cursor.DEFAULT);
+            case NODE_DRAG -> nodes.endDrag();
+            case CONNECT -> connectionManager.finishConnectionDrag(point.getX(), point.getY());
+            case MARQUEE -> selectionBox.finish();
+            case SWEEP_CUT -> {
+                connectionManager.finishSweep();
+                content.setCursor(Cursor.DEFAULT);
+            }
+        }
+
+        mode = InteractionMode.IDLE;
+        gestureButton = null;
+        pressedConnector = null;
+        e.consume();
+    }
+
+    // Empty canvas or anything inside the content, not the controls laid over it
+    private boolean isCanvasTarget(MouseEvent e) {
+        if (!(e.getTarget() instanceof Node target)) return false;
+        for (Node node = target; node != null && node != viewport; node = node.getParent()) {
+            if (node == content) return true;
+        }
+        return target == viewport;
+    }
+}
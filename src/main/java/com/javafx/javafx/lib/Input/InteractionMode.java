@@ -0,0 +1,11 @@
+package com.javafx.javafx.lib.Input;
+
+// The gesture a pressed mouse button is driving; IDLE between gestures
+public enum InteractionMode {
+    IDLE,
+    PAN,
+    NODE_DRAG,
+    CONNECT,
+    MARQUEE,
+    SWEEP_CUT
+}
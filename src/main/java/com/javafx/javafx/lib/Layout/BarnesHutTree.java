@@ -0,0 +1,157 @@
+package com.javafx.javafx.lib.Layout;
+
+import java.util.Arrays;
+
+// Quadtree over the node positions, rebuilt every iteration. Each cell keeps the mass
+// and centre of mass of everything below it, so a distant group of nodes repels as one
+// body and the repulsion pass costs O(n log n) instead of O(n^2)
+final class BarnesHutTree {
+
+    // Coincident nodes would otherwise subdivide forever
+    private static final int MAX_DEPTH = 24;
+    private static final int STACK_SIZE = 3 * MAX_DEPTH + 4;
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+
+    private double[] centerX, centerY, half;
+    private double[] mass, massX, massY;
+    private int[] firstChild, body;
+    private int cells;
+
+    BarnesHutTree(int capacity) {
+        allocate(Math.max(16, 2 * capacity));
+    }
+
+    void build(double[] x, double[] y, int n) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        cells = 0;
+        int root = newCell((minX + maxX) / 2, (minY + maxY) / 2, Math.max(maxX - minX, maxY - minY) / 2 + 1);
+        for (int i = 0; i < n; i++) insert(root, i, x, y);
+    }
+
+    // Repulsion on node i, scaled by strength / distance; safe to call from many threads
+    void repulsion(int i, double[] x, double[] y, double strength, double theta, double[] out) {
+        double fx = 0, fy = 0;
+        double thetaSquared = theta * theta;
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int cell = stack[--top];
+            double m = mass[cell];
+            if (m == 0) continue;
+            boolean leaf = firstChild[cell] < 0;
+            if (leaf && body[cell] == i && m == 1) continue;
+
+            double dx = x[i] - massX[cell] / m;
+            double dy = y[i] - massY[cell] / m;
+            double distanceSquared = Math.max(dx * dx + dy * dy, 1);
+            double size = 2 * half[cell];
+
+            if (!leaf && size * size >= thetaSquared * distanceSquared) {
+                int child = firstChild[cell];
+                for (int q = 0; q < 4; q++) stack[top++] = child + q;
+            } else if (dx * dx + dy * dy < 1e-6) {
+                // Nodes stacked on one spot push each other apart in a fixed direction per node
+                double angle = i * GOLDEN_ANGLE;
+                double f = strength * (contains(cell, x[i], y[i]) ? m - 1 : m);
+                fx += Math.cos(angle) * f;
+                fy += Math.sin(angle) * f;
+            } else {
+                double f = strength * m / distanceSquared;
+                fx += dx * f;
+                fy += dy * f;
+            }
+        }
+        out[0] = fx;
+        out[1] = fy;
+    }
+
+    private void insert(int root, int i, double[] x, double[] y) {
+        int cell = root;
+        for (int depth = 0; ; depth++) {
+            if (firstChild[cell] < 0) {
+                if (mass[cell] == 0) {
+                    body[cell] = i;
+                    mass[cell] = 1;
+                    massX[cell] = x[i];
+                    massY[cell] = y[i];
+                    return;
+                }
+                if (depth >= MAX_DEPTH) {
+                    mass[cell]++;
+                    massX[cell] += x[i];
+                    massY[cell] += y[i];
+                    return;
+                }
+                subdivide(cell);
+            }
+            mass[cell]++;
+            massX[cell] += x[i];
+            massY[cell] += y[i];
+            cell = firstChild[cell] + quadrant(cell, x[i], y[i]);
+        }
+    }
+
+    // Turns a leaf into four children and moves its single body down into one of them
+    private void subdivide(int cell) {
+        double h = half[cell] / 2;
+        int child = cells;
+        if (cells + 4 > mass.length) allocate(mass.length * 2);
+        newCell(centerX[cell] - h, centerY[cell] - h, h);
+        newCell(centerX[cell] + h, centerY[cell] - h, h);
+        newCell(centerX[cell] - h, centerY[cell] + h, h);
+        newCell(centerX[cell] + h, centerY[cell] + h, h);
+        firstChild[cell] = child;
+
+        int b = body[cell];
+        body[cell] = -1;
+        int target = child + quadrant(cell, massX[cell], massY[cell]);
+        body[target] = b;
+        mass[target] = 1;
+        massX[target] = massX[cell];
+        massY[target] = massY[cell];
+    }
+
+    private boolean contains(int cell, double px, double py) {
+        return Math.abs(px - centerX[cell]) <= half[cell] && Math.abs(py - centerY[cell]) <= half[cell];
+    }
+
+    private int quadrant(int cell, double px, double py) {
+        return (px < centerX[cell] ? 0 : 1) + (py < centerY[cell] ? 0 : 2);
+    }
+
+    private int newCell(double cx, double cy, double h) {
+        if (cells == mass.length) allocate(mass.length * 2);
+        int cell = cells++;
+        centerX[cell] = cx;
+        centerY[cell] = cy;
+        half[cell] = h;
+        mass[cell] = 0;
+        massX[cell] = 0;
+        massY[cell] = 0;
+        firstChild[cell] = -1;
+        body[cell] = -1;
+        return cell;
+    }
+
+    private void allocate(int capacity) {
+        if (mass != null && capacity <= mass.length) return;
+        centerX = mass == null ? new double[capacity] : Arrays.copyOf(centerX, capacity);
+        centerY = mass == null ? new double[capacity] : Arrays.copyOf(centerY, capacity);
+        half = mass == null ? new double[capacity] : Arrays.copyOf(half, capacity);
+        massX = mass == null ? new double[capacity] : Arrays.copyOf(massX, capacity);
+        massY = mass == null ? new double[capacity] : Arrays.copyOf(massY, capacity);
+        firstChild = mass == null ? new int[capacity] : Arrays.copyOf(firstChild, capacity);
+        body = mass == null ? new int[capacity] : Arrays.copyOf(body, capacity);
+        mass = mass == null ? new double[capacity] : Arrays.copyOf(mass, capacity);
+    }
+}
@@ -0,0 +1,96 @@
+package com.javafx.javafx.lib.Layout;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Fruchterman-Reingold style spring embedder. Wires pull their ends towards the ideal
+// length, every node repels every other through a Barnes-Hut tree, and the step size
+// cools down each iteration. Forces are computed in parallel, one node per task, and
+// applied afterwards, so the result does not depend on the number of threads
+public class ForceDirectedLayout implements LayoutAlgorithm {
+
+    private static final double THETA = 1.2;
+    private static final long PUBLISH_INTERVAL_NANOS = 16_000_000;
+
+    private final double idealLength;
+    private final int iterations;
+    // Largest step in the first iteration, in units of the ideal length
+    private final double startTemperature;
+
+    public ForceDirectedLayout() {
+        this(250, 120, 10);
+    }
+
+    public ForceDirectedLayout(double idealLength, int iterations, double startTemperature) {
+        this.idealLength = idealLength;
+        this.iterations = iterations;
+        this.startTemperature = startTemperature;
+    }
+
+    // A short, cool pass that tidies the current positions instead of starting over
+    @Override
+    public ForceDirectedLayout refinement() {
+        return new ForceDirectedLayout(idealLength, Math.max(20, iterations / 4), 0.5);
+    }
+
+    @Override
+    public void run(LayoutGraph graph, double[] x, double[] y, LayoutProgress progress) {
+        int n = graph.size;
+        if (n < 2) return;
+
+        // Nodes stacked on one spot (e.g. all created at the default position) need a nudge
+        // apart, a cold pass keeps the positions it was given
+        if (startTemperature >= 1) {
+            SplittableRandom random = new SplittableRandom(n);
+            for (int i = 0; i < n; i++) {
+                x[i] += random.nextDouble(-1, 1) * idealLength * 0.1;
+                y[i] += random.nextDouble(-1, 1) * idealLength * 0.1;
+            }
+        }
+
+        double k = idealLength;
+        double repulsion = k * k;
+        double[] dx = new double[n];
+        double[] dy = new double[n];
+        BarnesHutTree tree = new BarnesHutTree(n);
+        long lastPublish = System.nanoTime();
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            if (progress.isCancelled()) return;
+
+            double temperature = k * startTemperature * (1 - (double) iteration / iterations);
+            tree.build(x, y, n);
+
+            IntStream.range(0, n).parallel().forEach(i -> {
+                double[] force = new double[2];
+                tree.repulsion(i, x, y, repulsion, THETA, force);
+                double fx = force[0], fy = force[1];
+
+                for (int e = graph.neighbourStart[i]; e < graph.neighbourStart[i + 1]; e++) {
+                    int j = graph.neighbours[e];
+                    double ex = x[j] - x[i];
+                    double ey = y[j] - y[i];
+                    double distance = Math.sqrt(ex * ex + ey * ey);
+                    fx += ex * distance / k;
+                    fy += ey * distance / k;
+                }
+
+                double length = Math.sqrt(fx * fx + fy * fy);
+                double step = length > temperature ? temperature / length : 1;
+                dx[i] = fx * step;
+                dy[i] = fy * step;
+            });
+
+            for (int i = 0; i < n; i++) {
+                x[i] += dx[i];
+                y[i] += dy[i];
+            }
+
+            long now = System.nanoTime();
+            if (now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+                progress.publish(x, y);
+                lastPublish = now;
+            }
+        }
+    }
+}
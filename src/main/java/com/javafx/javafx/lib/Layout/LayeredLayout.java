@@ -0,0 +1,175 @@
+package com.javafx.javafx.lib.Layout;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Sugiyama-style layout for dataflow graphs: wires run left to right. Nodes get the
+// longest-path layer from a topological order (wires that close a cycle are ignored),
+// then the order inside each layer is improved by alternating barycenter sweeps. Long
+// wires use the relative position of their far end instead of dummy nodes
+public class LayeredLayout implements LayoutAlgorithm {
+
+    private final double layerSpacing;
+    private final double nodeSpacing;
+    private final int sweeps;
+
+    public LayeredLayout() {
+        this(300, 110, 8);
+    }
+
+    public LayeredLayout(double layerSpacing, double nodeSpacing, int sweeps) {
+        this.layerSpacing = layerSpacing;
+        this.nodeSpacing = nodeSpacing;
+        this.sweeps = sweeps;
+    }
+
+    @Override
+    public void run(LayoutGraph graph, double[] x, double[] y, LayoutProgress progress) {
+        int n = graph.size;
+        if (n == 0) return;
+
+        double originX = Double.POSITIVE_INFINITY;
+        double centerY = 0;
+        for (int i = 0; i < n; i++) {
+            originX = Math.min(originX, x[i]);
+            centerY += y[i] / n;
+        }
+
+        int[] order = topologicalOrder(graph);
+        int[] position = new int[n];
+        for (int p = 0; p < n; p++) position[order[p]] = p;
+
+        int[] layer = new int[n];
+        int layerCount = 1;
+        for (int v : order) {
+            for (int e = graph.outStart[v]; e < graph.outStart[v + 1]; e++) {
+                int w = graph.outTargets[e];
+                if (position[w] > position[v]) layer[w] = Math.max(layer[w], layer[v] + 1);
+            }
+            layerCount = Math.max(layerCount, layer[v] + 1);
+        }
+        if (progress.isCancelled()) return;
+
+        // Layers as slices of one array, each starting out in the current top-to-bottom order
+        int[] layerStart = new int[layerCount + 1];
+        for (int i = 0; i < n; i++) layerStart[layer[i] + 1]++;
+        for (int l = 0; l < layerCount; l++) layerStart[l + 1] += layerStart[l];
+        int[] members = new int[n];
+        int[] fill = layerStart.clone();
+        for (int i = 0; i < n; i++) members[fill[layer[i]]++] = i;
+        for (int l = 0; l < layerCount; l++) {
+            sortSlice(members, layerStart[l], layerStart[l + 1], i -> y[i]);
+        }
+
+        // Position of each node inside its layer, scaled to 0..1 so layers of different size compare
+        double[] relative = new double[n];
+        double[] barycenter = new double[n];
+        updateRelative(members, layerStart, layerCount, relative);
+        place(members, layerStart, layerCount, layer, originX, centerY, x, y);
+        progress.publish(x, y);
+
+        for (int sweep = 0; sweep < sweeps; sweep++) {
+            boolean down = sweep % 2 == 0;
+            for (int step = 1; step < layerCount; step++) {
+                if (progress.isCancelled()) return;
+
+                int l = down ? step : layerCount - 1 - step;
+                int start = layerStart[l], end = layerStart[l + 1];
+
+                IntStream.range(start, end).parallel().forEach(m -> {
+                    int v = members[m];
+                    double sum = 0;
+                    int count = 0;
+                    for (int e = graph.neighbourStart[v]; e < graph.neighbourStart[v + 1]; e++) {
+                        int u = graph.neighbours[e];
+                        if (down ? layer[u] < l : layer[u] > l) {
+                            sum += relative[u];
+                            count++;
+                        }
+                    }
+                    barycenter[v] = count == 0 ? relative[v] : sum / count;
+                });
+
+                sortSlice(members, start, end, v -> barycenter[v]);
+                for (int m = start; m < end; m++) relative[members[m]] = (m - start + 0.5) / (end - start);
+            }
+
+            place(members, layerStart, layerCount, layer, originX, centerY, x, y);
+            progress.publish(x, y);
+        }
+    }
+
+    private void place(int[] members, int[] layerStart, int layerCount, int[] layer,
+                       double originX, double centerY, double[] x, double[] y) {
+        for (int l = 0; l < layerCount; l++) {
+            int start = layerStart[l], end = layerStart[l + 1];
+            double top = centerY - (end - start - 1) * nodeSpacing / 2;
+            for (int m = start; m < end; m++) {
+                int v = members[m];
+                x[v] = originX + layer[v] * layerSpacing;
+                y[v] = top + (m - start) * nodeSpacing;
+            }
+        }
+    }
+
+    private static void updateRelative(int[] members, int[] layerStart, int layerCount, double[] relative) {
+        for (int l = 0; l < layerCount; l++) {
+            int start = layerStart[l], end = layerStart[l + 1];
+            for (int m = start; m < end; m++) relative[members[m]] = (m - start + 0.5) / (end - start);
+        }
+    }
+
+    // Stable sort of members[start..end) by key; keys are packed with the old slot into longs
+    private static void sortSlice(int[] members, int start, int end, NodeKey key) {
+        int size = end - start;
+        if (size < 2) return;
+
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        double[] keys = new double[size];
+        for (int m = 0; m < size; m++) {
+            keys[m] = key.of(members[start + m]);
+            min = Math.min(min, keys[m]);
+            max = Math.max(max, keys[m]);
+        }
+        double scale = max > min ? Integer.MAX_VALUE / (max - min) : 0;
+
+        long[] packed = new long[size];
+        for (int m = 0; m < size; m++) {
+            packed[m] = ((long) ((keys[m] - min) * scale) << 32) | m;
+        }
+        Arrays.parallelSort(packed);
+
+        int[] sorted = new int[size];
+        for (int m = 0; m < size; m++) sorted[m] = members[start + (int) packed[m]];
+        System.arraycopy(sorted, 0, members, start, size);
+    }
+
+    // Kahn's algorithm; nodes stuck on a cycle are appended in index order
+    private static int[] topologicalOrder(LayoutGraph graph) {
+        int n = graph.size;
+        int[] remaining = new int[n];
+        for (int t : graph.outTargets) remaining[t]++;
+
+        int[] order = new int[n];
+        boolean[] placed = new boolean[n];
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (remaining[i] == 0) order[tail++] = i;
+        }
+        while (head < tail) {
+            int v = order[head++];
+            placed[v] = true;
+            for (int e = graph.outStart[v]; e < graph.outStart[v + 1]; e++) {
+                if (--remaining[graph.outTargets[e]] == 0) order[tail++] = graph.outTargets[e];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (!placed[i]) order[tail++] = i;
+        }
+        return order;
+    }
+
+    private interface NodeKey {
+        double of(int node);
+    }
+}
@@ -0,0 +1,13 @@
+package com.javafx.javafx.lib.Layout;
+
+// Runs on a worker thread inside a ForkJoinPool, so parallel streams use that pool.
+// x and y hold the current positions on entry and the result on return
+public interface LayoutAlgorithm {
+
+    void run(LayoutGraph graph, double[] x, double[] y, LayoutProgress progress);
+
+    // What to run when the user asks to improve on the result; by default the same again
+    default LayoutAlgorithm refinement() {
+        return this;
+    }
+}
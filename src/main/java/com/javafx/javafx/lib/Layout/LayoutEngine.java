@@ -0,0 +1,185 @@
+package com.javafx.javafx.lib.Layout;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.History.EditJournal;
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Runs layouts off the FX thread. The graph is snapshotted when a run starts, the
+// algorithm works on its own arrays in a dedicated pool, and only the newest published
+// positions are applied, once per pulse, so the editor stays interactive throughout.
+// Each run ends up as a single undoable journal entry, also when it is cancelled
+public class LayoutEngine {
+
+    private final ConnectionManager connectionManager;
+    private final ForkJoinPool pool;
+
+    private Job current;
+    private LayoutAlgorithm lastAlgorithm;
+    private Runnable onApplied = () -> {
+    };
+
+    private final AnimationTimer applier = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyLatest();
+        }
+    };
+
+    public LayoutEngine(ConnectionManager connectionManager) {
+        // Separate from the common pool, so a long layout does not starve dataflow runs
+        this(connectionManager, new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public LayoutEngine(ConnectionManager connectionManager, ForkJoinPool pool) {
+        this.connectionManager = connectionManager;
+        this.pool = pool;
+    }
+
+    // Called after each batch of positions reaches the scene, e.g. to refresh virtualization
+    public void setOnApplied(Runnable onApplied) {
+        this.onApplied = onApplied;
+    }
+
+    public void start(LayoutAlgorithm algorithm) {
+        cancel();
+        if (current != null) finish(current);
+
+        lastAlgorithm = algorithm;
+        Job job = new Job(algorithm);
+        if (job.views.isEmpty()) return;
+
+        current = job;
+        applier.start();
+        pool.execute(job::run);
+    }
+
+    // Continues from the current positions with the last algorithm's refinement
+    public void refine() {
+        if (lastAlgorithm != null) start(lastAlgorithm.refinement());
+    }
+
+    // Nodes stay wherever the last applied positions put them
+    public void cancel() {
+        if (current != null) current.cancelled = true;
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    public void dispose() {
+        cancel();
+        applier.stop();
+        pool.shutdownNow();
+    }
+
+    private void applyLatest() {
+        Job job = current;
+        if (job == null) {
+            applier.stop();
+            return;
+        }
+
+        double[][] positions = job.latest.getAndSet(null);
+        if (positions != null && !job.cancelled) apply(job, positions[0], positions[1]);
+
+        if (job.done && job.latest.get() == null) finish(job);
+    }
+
+    private void apply(Job job, double[] x, double[] y) {
+        List<GraphNode> moved = new ArrayList<>(job.views.size());
+        for (int i = 0; i < job.views.size(); i++) {
+            GraphNode node = job.views.get(i);
+            // Deleted while the layout was running
+            if (node.getModelId() < 0) continue;
+
+            node.setLayoutX(x[i]);
+            node.setLayoutY(y[i]);
+            moved.add(node);
+        }
+
+        if (moved.size() == connectionManager.getModel().nodeCount()) {
+            connectionManager.updateConnections();
+        } else {
+            connectionManager.updateConnectionsFor(moved);
+        }
+        onApplied.run();
+    }
+
+    private void finish(Job job) {
+        if (current == job) {
+            current = null;
+            applier.stop();
+        }
+
+        EditJournal journal = connectionManager.getJournal();
+        if (journal != null) {
+            int n = job.views.size();
+            double[] x = new double[n], y = new double[n];
+            for (int i = 0; i < n; i++) {
+                GraphNode node = job.views.get(i);
+                boolean live = node.getModelId() >= 0;
+                x[i] = live ? node.getLayoutX() : job.startX[i];
+                y[i] = live ? node.getLayoutY() : job.startY[i];
+            }
+            journal.recordPlaced(job.views, job.startX, job.startY, x, y);
+        }
+    }
+
+    private final class Job implements LayoutProgress {
+        private final LayoutAlgorithm algorithm;
+        private final LayoutGraph graph;
+        private final List<GraphNode> views;
+        private final double[] startX, startY;
+        private final AtomicReference<double[][]> latest = new AtomicReference<>();
+        private volatile boolean cancelled = false;
+        private volatile boolean done = false;
+
+        // Runs on the FX thread
+        Job(LayoutAlgorithm algorithm) {
+            this.algorithm = algorithm;
+            this.graph = LayoutGraph.of(connectionManager.getModel());
+
+            int n = graph.size();
+            views = new ArrayList<>(n);
+            startX = new double[n];
+            startY = new double[n];
+            for (int i = 0; i < n; i++) {
+                GraphNode node = connectionManager.getNode(graph.nodeId(i));
+                views.add(node);
+                startX[i] = node.getLayoutX();
+                startY[i] = node.getLayoutY();
+            }
+        }
+
+        // Runs in the layout pool
+        void run() {
+            try {
+                double[] x = startX.clone();
+                double[] y = startY.clone();
+                algorithm.run(graph, x, y, this);
+                if (!cancelled) publish(x, y);
+            } catch (RuntimeException e) {
+                System.err.println("Layout failed: " + e.getMessage());
+            } finally {
+                done = true;
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void publish(double[] x, double[] y) {
+            latest.set(new double[][]{x.clone(), y.clone()});
+        }
+    }
+}
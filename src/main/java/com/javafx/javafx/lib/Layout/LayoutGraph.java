@@ -0,0 +1,73 @@
+package com.javafx.javafx.lib.Layout;
+
+import com.javafx.javafx.lib.Model.GraphModel;
+
+// Immutable snapshot a layout runs on. Nodes are dense indexes 0..size-1 and edges are
+// stored twice in compressed form: directed (out) and undirected (both directions)
+public final class LayoutGraph {
+
+    final int size;
+    final int[] nodeIds;
+    final int[] edgeFrom, edgeTo;
+    final int[] outStart, outTargets;
+    final int[] neighbourStart, neighbours;
+
+    LayoutGraph(int[] nodeIds, int[] edgeFrom, int[] edgeTo) {
+        this.size = nodeIds.length;
+        this.nodeIds = nodeIds;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+
+        outStart = new int[size + 1];
+        neighbourStart = new int[size + 1];
+        for (int e = 0; e < edgeFrom.length; e++) {
+            outStart[edgeFrom[e] + 1]++;
+            neighbourStart[edgeFrom[e] + 1]++;
+            neighbourStart[edgeTo[e] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            outStart[i + 1] += outStart[i];
+            neighbourStart[i + 1] += neighbourStart[i];
+        }
+
+        outTargets = new int[edgeFrom.length];
+        neighbours = new int[2 * edgeFrom.length];
+        int[] outFill = outStart.clone();
+        int[] neighbourFill = neighbourStart.clone();
+        for (int e = 0; e < edgeFrom.length; e++) {
+            outTargets[outFill[edgeFrom[e]]++] = edgeTo[e];
+            neighbours[neighbourFill[edgeFrom[e]]++] = edgeTo[e];
+            neighbours[neighbourFill[edgeTo[e]]++] = edgeFrom[e];
+        }
+    }
+
+    public static LayoutGraph of(GraphModel model) {
+        int[] indexOf = new int[model.nodeCapacity()];
+        int[] nodeIds = new int[model.nodeCount()];
+        int n = 0;
+        for (int id = 0; id < model.nodeCapacity(); id++) {
+            if (!model.isNode(id)) continue;
+            indexOf[id] = n;
+            nodeIds[n++] = id;
+        }
+
+        int[] edgeFrom = new int[model.edgeCount()];
+        int[] edgeTo = new int[model.edgeCount()];
+        int e = 0;
+        for (int edge = 0; edge < model.edgeCapacity(); edge++) {
+            if (!model.isEdge(edge)) continue;
+            edgeFrom[e] = indexOf[model.edgeFrom(edge)];
+            edgeTo[e] = indexOf[model.edgeTo(edge)];
+            e++;
+        }
+        return new LayoutGraph(nodeIds, edgeFrom, edgeTo);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int nodeId(int index) {
+        return nodeIds[index];
+    }
+}
@@ -0,0 +1,10 @@
+package com.javafx.javafx.lib.Layout;
+
+// Handed to a running layout by whoever started it
+public interface LayoutProgress {
+
+    boolean isCancelled();
+
+    // Intermediate positions; the arrays are copied, the layout may keep writing to them
+    void publish(double[] x, double[] y);
+}
@@ -0,0 +1,101 @@
+package com.javafx.javafx.lib.Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder events for the expensive interaction paths, recorded e.g. with
+//     java -XX:StartFlightRecording:filename=editor.jfr ...
+// Each event times one batch of work and says how much it touched. Stack traces are
+// off, these fire up to once per pulse and the call sites are fixed
+public final class EditorEvents {
+
+    private EditorEvents() {
+    }
+
+    @Name("com.javafx.javafx.NodeDrag")
+    @Label("Node Drag")
+    @Description("One pulse worth of dragging: moving the selection and updating its wires")
+    @Category({"Node Editor", "Interaction"})
+    @StackTrace(false)
+    public static final class NodeDrag extends Event {
+        @Label("Nodes Moved")
+        public int nodes;
+
+        @Label("Delta X")
+        public double deltaX;
+
+        @Label("Delta Y")
+        public double deltaY;
+    }
+
+    @Name("com.javafx.javafx.Zoom")
+    @Label("Zoom Step")
+    @Description("Applying one coalesced zoom step to the content pane")
+    @Category({"Node Editor", "Interaction"})
+    @StackTrace(false)
+    public static final class Zoom extends Event {
+        @Label("Attached Nodes")
+        @Description("Scene-graph nodes under the content pane that are rescaled")
+        public int nodes;
+
+        @Label("Scale")
+        public double scale;
+    }
+
+    @Name("com.javafx.javafx.Connect")
+    @Label("Connect")
+    @Description("Creating one wire, including its registry, index and renderer updates")
+    @Category({"Node Editor", "Editing"})
+    @StackTrace(false)
+    public static final class Connect extends Event {
+        @Label("From Node")
+        public int fromNode;
+
+        @Label("To Node")
+        public int toNode;
+
+        @Label("Wires")
+        @Description("Wires in the graph after the connection")
+        public int wires;
+    }
+
+    @Name("com.javafx.javafx.SweepCut")
+    @Label("Sweep Cut")
+    @Description("Hit-testing the sweep line against the wires and removing the cut ones")
+    @Category({"Node Editor", "Editing"})
+    @StackTrace(false)
+    public static final class SweepCut extends Event {
+        @Label("Wires Cut")
+        public int wires;
+    }
+
+    @Name("com.javafx.javafx.MarqueeSelection")
+    @Label("Marquee Selection")
+    @Description("One update of the selection box: querying the nodes inside and restyling the difference")
+    @Category({"Node Editor", "Interaction"})
+    @StackTrace(false)
+    public static final class MarqueeSelection extends Event {
+        @Label("Nodes Inside")
+        public int nodes;
+
+        @Label("Nodes Changed")
+        public int changed;
+    }
+
+    @Name("com.javafx.javafx.BulkDelete")
+    @Label("Bulk Delete")
+    @Description("Deleting the selected nodes together with their wires")
+    @Category({"Node Editor", "Editing"})
+    @StackTrace(false)
+    public static final class BulkDelete extends Event {
+        @Label("Nodes")
+        public int nodes;
+
+        @Label("Wires")
+        public int wires;
+    }
+}
@@ -0,0 +1,171 @@
+package com.javafx.javafx.lib.Metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+// Process-wide latency and frame-time figures. Operations are timed with
+//     long start = metrics.start();  ...  metrics.record(Operation.X, start);
+// which costs two nanoTime calls and a few atomic adds, so the timers stay on always.
+// Frame figures and gauges come from a FrameMonitor, which only runs while enabled
+public class EditorMetrics implements EditorMetricsMXBean {
+    private static final EditorMetrics instance = new EditorMetrics();
+
+    private static final String OBJECT_NAME = "com.javafx.javafx:type=EditorMetrics";
+
+    private final Map<Operation, LatencyHistogram> operations = new EnumMap<>(Operation.class);
+    private final LatencyHistogram frameTimes = new LatencyHistogram();
+    private final LatencyHistogram pulseTimes = new LatencyHistogram();
+
+    // Gauges, sampled by the frame monitor on the FX thread
+    private volatile int sceneNodeCount;
+    private volatile int graphNodeCount;
+    private volatile int connectionCount;
+
+    private volatile FrameMonitor monitor;
+
+    private EditorMetrics() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new LatencyHistogram());
+        }
+    }
+
+    public static EditorMetrics getInstance() {
+        return instance;
+    }
+
+    // Safe to call more than once; failures only cost the JMX view
+    public void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register editor metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void record(Operation operation, long startNanos) {
+        operations.get(operation).record(System.nanoTime() - startNanos);
+    }
+
+    public LatencyHistogram getHistogram(Operation operation) {
+        return operations.get(operation);
+    }
+
+    public LatencyHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    public LatencyHistogram getPulseTimes() {
+        return pulseTimes;
+    }
+
+    void setMonitor(FrameMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    void updateGauges(int sceneNodes, int graphNodes, int connections) {
+        sceneNodeCount = sceneNodes;
+        graphNodeCount = graphNodes;
+        connectionCount = connections;
+    }
+
+    @Override
+    public boolean isFrameMonitoringEnabled() {
+        FrameMonitor current = monitor;
+        return current != null && current.isEnabled();
+    }
+
+    // JMX calls arrive on an RMI thread, the monitor hops over to the FX thread itself
+    @Override
+    public void setFrameMonitoringEnabled(boolean enabled) {
+        FrameMonitor current = monitor;
+        if (current != null) current.setEnabledLater(enabled);
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameTimes.count();
+    }
+
+    @Override
+    public double getFrameTimeMeanMillis() {
+        return frameTimes.snapshot().meanNanos() / 1e6;
+    }
+
+    @Override
+    public double getFrameTimeP99Millis() {
+        return frameTimes.snapshot().p99Nanos() / 1e6;
+    }
+
+    @Override
+    public double getPulseTimeMeanMillis() {
+        return pulseTimes.snapshot().meanNanos() / 1e6;
+    }
+
+    @Override
+    public double getPulseTimeP99Millis() {
+        return pulseTimes.snapshot().p99Nanos() / 1e6;
+    }
+
+    @Override
+    public int getSceneNodeCount() {
+        return sceneNodeCount;
+    }
+
+    @Override
+    public int getGraphNodeCount() {
+        return graphNodeCount;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        operations.forEach((operation, histogram) -> counts.put(operation.label(), histogram.count()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getOperationP50Millis() {
+        return perOperation(s -> s.p50Nanos() / 1e6);
+    }
+
+    @Override
+    public Map<String, Double> getOperationP99Millis() {
+        return perOperation(s -> s.p99Nanos() / 1e6);
+    }
+
+    @Override
+    public Map<String, Double> getOperationMaxMillis() {
+        return perOperation(s -> s.maxNanos() / 1e6);
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(LatencyHistogram::reset);
+        frameTimes.reset();
+        pulseTimes.reset();
+    }
+
+    private Map<String, Double> perOperation(ToDoubleFunction<LatencyHistogram.Snapshot> value) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        operations.forEach((operation, histogram) ->
+                values.put(operation.label(), value.applyAsDouble(histogram.snapshot())));
+        return values;
+    }
+}
@@ -0,0 +1,38 @@
+package com.javafx.javafx.lib.Metrics;
+
+import java.util.Map;
+
+// JMX view of EditorMetrics, registered as com.javafx.javafx:type=EditorMetrics.
+// Times are in milliseconds
+public interface EditorMetricsMXBean {
+
+    boolean isFrameMonitoringEnabled();
+
+    void setFrameMonitoringEnabled(boolean enabled);
+
+    long getFrameCount();
+
+    double getFrameTimeMeanMillis();
+
+    double getFrameTimeP99Millis();
+
+    double getPulseTimeMeanMillis();
+
+    double getPulseTimeP99Millis();
+
+    int getSceneNodeCount();
+
+    int getGraphNodeCount();
+
+    int getConnectionCount();
+
+    Map<String, Long> getOperationCounts();
+
+    Map<String, Double> getOperationP50Millis();
+
+    Map<String, Double> getOperationP99Millis();
+
+    Map<String, Double> getOperationMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,89 @@
+package com.javafx.javafx.lib.Metrics;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+// Feeds EditorMetrics with frame times (the interval between pulses), pulse times
+// (from the start of the animation phase to the end of CSS and layout) and gauges.
+// A running AnimationTimer forces a pulse every frame, so this only runs when enabled
+public class FrameMonitor {
+
+    private static final long GAUGE_INTERVAL_NANOS = 250_000_000;
+
+    private final Scene scene;
+    private final ConnectionManager connectionManager;
+    private final EditorMetrics metrics = EditorMetrics.getInstance();
+
+    private boolean enabled = false;
+    private long lastFrame = 0;
+    private long pulseStart = 0;
+    private long lastGaugeSample = 0;
+
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (lastFrame > 0) metrics.getFrameTimes().record(now - lastFrame);
+            lastFrame = now;
+            pulseStart = System.nanoTime();
+
+            if (now - lastGaugeSample >= GAUGE_INTERVAL_NANOS) {
+                lastGaugeSample = now;
+                sampleGauges();
+            }
+        }
+    };
+
+    private final Runnable pulseEnd = () -> {
+        if (pulseStart == 0) return;
+        metrics.getPulseTimes().record(System.nanoTime() - pulseStart);
+        pulseStart = 0;
+    };
+
+    public FrameMonitor(Scene scene, ConnectionManager connectionManager) {
+        this.scene = scene;
+        this.connectionManager = connectionManager;
+        metrics.setMonitor(this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+
+        if (enabled) {
+            lastFrame = 0;
+            pulseStart = 0;
+            lastGaugeSample = 0;
+            scene.addPostLayoutPulseListener(pulseEnd);
+            frameTimer.start();
+        } else {
+            frameTimer.stop();
+            scene.removePostLayoutPulseListener(pulseEnd);
+        }
+    }
+
+    void setEnabledLater(boolean enabled) {
+        Platform.runLater(() -> setEnabled(enabled));
+    }
+
+    private void sampleGauges() {
+        metrics.updateGauges(countNodes(scene.getRoot()),
+                connectionManager.getModel().nodeCount(),
+                connectionManager.getConnections().size());
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) count += countNodes(child);
+        }
+        return count;
+    }
+}
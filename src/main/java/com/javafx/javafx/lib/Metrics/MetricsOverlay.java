@@ -0,0 +1,87 @@
+package com.javafx.javafx.lib.Metrics;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Pane;
+
+// Debug panel in the top right corner of the canvas, clear of the buttons on the left;
+// showing it turns frame monitoring on
+public class MetricsOverlay {
+
+    private static final long REFRESH_INTERVAL_NANOS = 250_000_000;
+    private static final double MARGIN = 8;
+
+    private final Pane parent;
+    private final FrameMonitor monitor;
+    private final EditorMetrics metrics = EditorMetrics.getInstance();
+    private final Label label = new Label();
+    private long lastRefresh = 0;
+    private boolean monitorWasEnabled = false;
+
+    private final AnimationTimer refreshTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (now - lastRefresh < REFRESH_INTERVAL_NANOS) return;
+            lastRefresh = now;
+            refresh();
+        }
+    };
+
+    public MetricsOverlay(Pane parent, FrameMonitor monitor) {
+        this.parent = parent;
+        this.monitor = monitor;
+
+        label.setMouseTransparent(true);
+        label.setStyle("-fx-font-family: monospace; -fx-font-size: 11px; -fx-text-fill: white;"
+                + " -fx-background-color: rgba(0, 0, 0, 0.7); -fx-padding: 6;");
+        label.setLayoutY(MARGIN);
+
+        // Kept against the right edge as the window resizes and the text changes width
+        InvalidationListener align = obs -> label.setLayoutX(parent.getWidth() - label.getWidth() - MARGIN);
+        parent.widthProperty().addListener(align);
+        label.widthProperty().addListener(align);
+    }
+
+    public boolean isShowing() {
+        return label.getParent() != null;
+    }
+
+    public void toggle() {
+        setShowing(!isShowing());
+    }
+
+    public void setShowing(boolean showing) {
+        if (showing == isShowing()) return;
+
+        if (showing) {
+            parent.getChildren().add(label);
+            monitorWasEnabled = monitor.isEnabled();
+            monitor.setEnabled(true);
+            lastRefresh = 0;
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+            monitor.setEnabled(monitorWasEnabled);
+            parent.getChildren().remove(label);
+        }
+    }
+
+    private void refresh() {
+        StringBuilder text = new StringBuilder();
+        LatencyHistogram.Snapshot frames = metrics.getFrameTimes().snapshot();
+        LatencyHistogram.Snapshot pulses = metrics.getPulseTimes().snapshot();
+        text.append(String.format("frame   %6.1f fps  p99 %6.2f ms%n",
+                frames.meanNanos() > 0 ? 1e9 / frames.meanNanos() : 0, frames.p99Nanos() / 1e6));
+        text.append(String.format("pulse   %6.2f ms   p99 %6.2f ms%n", pulses.meanNanos() / 1e6, pulses.p99Nanos() / 1e6));
+        text.append(String.format("scene nodes %d, graph nodes %d, wires %d%n",
+                metrics.getSceneNodeCount(), metrics.getGraphNodeCount(), metrics.getConnectionCount()));
+
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram.Snapshot s = metrics.getHistogram(operation).snapshot();
+            text.append(String.format("%-19s %7d  p50 %7.3f  p99 %7.3f  max %8.3f ms%n", operation.label(),
+                    s.count(), s.p50Nanos() / 1e6, s.p99Nanos() / 1e6, s.maxNanos() / 1e6));
+        }
+        label.setText(text.toString().stripTrailing());
+    }
+}
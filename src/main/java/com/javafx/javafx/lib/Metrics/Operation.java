@@ -0,0 +1,20 @@
+package com.javafx.javafx.lib.Metrics;
+
+// Interactive operations with their own latency histogram
+public enum Operation {
+    HIT_TEST("hit test"),
+    UPDATE_CONNECTIONS("update connections"),
+    BOX_SELECTION("box selection"),
+    CONNECT("connect"),
+    DELETE("delete");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+}
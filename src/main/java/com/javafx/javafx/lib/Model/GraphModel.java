@@ -0,0 +1,414 @@
+package com.javafx.javafx.lib.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Headless graph: nodes and edges are plain int ids backed by primitive arrays,
+// so graph operations need neither JavaFX nor one object per node or edge
+public class GraphModel {
+
+    public interface Listener {
+        default void nodeAdded(int id) {
+        }
+
+        // Incident edges have already been removed, each with its own edgeRemoved
+        default void nodeRemoved(int id) {
+        }
+
+        default void edgeAdded(int edge, int from, int to) {
+        }
+
+        default void edgeRemoved(int edge, int from, int to) {
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_DEGREE = 2;
+    private static final int[] NO_EDGES = new int[0];
+
+    // Nodes, indexed by node id; x and y are the layout position of the node itself
+    private boolean[] alive = new boolean[INITIAL_CAPACITY];
+    private double[] x = new double[INITIAL_CAPACITY];
+    private double[] y = new double[INITIAL_CAPACITY];
+    private double[] width = new double[INITIAL_CAPACITY];
+    private double[] height = new double[INITIAL_CAPACITY];
+    private int[][] outEdges = new int[INITIAL_CAPACITY][];
+    private int[] outCount = new int[INITIAL_CAPACITY];
+    private int[][] inEdges = new int[INITIAL_CAPACITY][];
+    private int[] inCount = new int[INITIAL_CAPACITY];
+    private int nodeHighWater = 0;
+    private int nodeCount = 0;
+    private final IntStack freeNodes = new IntStack();
+
+    // Edges, indexed by edge id; a source of -1 marks a free slot
+    private int[] edgeFrom = new int[INITIAL_CAPACITY];
+    private int[] edgeTo = new int[INITIAL_CAPACITY];
+    private int edgeHighWater = 0;
+    private int edgeCount = 0;
+    private final IntStack freeEdges = new IntStack();
+    // (from, to) -> edge id, so duplicate checks stay O(1) for hub nodes
+    private final EdgeTable edgesByEnds = new EdgeTable();
+
+    private final List<Listener> listeners = new ArrayList<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public int addNode(double x, double y, double width, double height) {
+        int id = freeNodes.isEmpty() ? nodeHighWater++ : freeNodes.pop();
+        ensureNodeCapacity(id + 1);
+
+        alive[id] = true;
+        this.x[id] = x;
+        this.y[id] = y;
+        this.width[id] = width;
+        this.height[id] = height;
+        outEdges[id] = NO_EDGES;
+        inEdges[id] = NO_EDGES;
+        outCount[id] = 0;
+        inCount[id] = 0;
+        nodeCount++;
+        for (Listener listener : listeners) listener.nodeAdded(id);
+        return id;
+    }
+
+    public void removeNode(int id) {
+        checkNode(id);
+
+        while (outCount[id] > 0) disconnect(outEdges[id][outCount[id] - 1]);
+        while (inCount[id] > 0) disconnect(inEdges[id][inCount[id] - 1]);
+
+        alive[id] = false;
+        outEdges[id] = null;
+        inEdges[id] = null;
+        nodeCount--;
+        freeNodes.push(id);
+        for (Listener listener : listeners) listener.nodeRemoved(id);
+    }
+
+    public boolean isNode(int id) {
+        return id >= 0 && id < nodeHighWater && alive[id];
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // Upper bound (exclusive) of node ids handed out so far, for array-sized side tables
+    public int nodeCapacity() {
+        return nodeHighWater;
+    }
+
+    public void forEachNode(IntConsumer action) {
+        for (int id = 0; id < nodeHighWater; id++) {
+            if (alive[id]) action.accept(id);
+        }
+    }
+
+    public double x(int id) {
+        return x[id];
+    }
+
+    public double y(int id) {
+        return y[id];
+    }
+
+    public double width(int id) {
+        return width[id];
+    }
+
+    public double height(int id) {
+        return height[id];
+    }
+
+    public void setPosition(int id, double x, double y) {
+        checkNode(id);
+        this.x[id] = x;
+        this.y[id] = y;
+    }
+
+    public void setBounds(int id, double x, double y, double width, double height) {
+        setPosition(id, x, y);
+        this.width[id] = width;
+        this.height[id] = height;
+    }
+
+    public void translate(int id, double dx, double dy) {
+        checkNode(id);
+        x[id] += dx;
+        y[id] += dy;
+    }
+
+    // Returns the new edge id, or -1 when the edge already exists
+    public int connect(int from, int to) {
+        checkNode(from);
+        checkNode(to);
+        if (findEdge(from, to) >= 0) return -1;
+
+        int edge = freeEdges.isEmpty() ? edgeHighWater++ : freeEdges.pop();
+        ensureEdgeCapacity(edge + 1);
+
+        edgeFrom[edge] = from;
+        edgeTo[edge] = to;
+        edgesByEnds.put(ends(from, to), edge);
+        outEdges[from] = append(outEdges[from], outCount[from]++, edge);
+        inEdges[to] = append(inEdges[to], inCount[to]++, edge);
+        edgeCount++;
+        for (Listener listener : listeners) listener.edgeAdded(edge, from, to);
+        return edge;
+    }
+
+    public void disconnect(int edge) {
+        checkEdge(edge);
+
+        int from = edgeFrom[edge];
+        int to = edgeTo[edge];
+        outCount[from] = removeValue(outEdges[from], outCount[from], edge);
+        inCount[to] = removeValue(inEdges[to], inCount[to], edge);
+        edgesByEnds.remove(ends(from, to));
+
+        edgeFrom[edge] = -1;
+        edgeTo[edge] = -1;
+        edgeCount--;
+        freeEdges.push(edge);
+        for (Listener listener : listeners) listener.edgeRemoved(edge, from, to);
+    }
+
+    public int findEdge(int from, int to) {
+        if (!isNode(from) || !isNode(to)) return -1;
+        return edgesByEnds.get(ends(from, to));
+    }
+
+    private static long ends(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    public boolean hasEdge(int from, int to) {
+        return findEdge(from, to) >= 0;
+    }
+
+    public boolean isEdge(int edge) {
+        return edge >= 0 && edge < edgeHighWater && edgeFrom[edge] >= 0;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public int edgeCapacity() {
+        return edgeHighWater;
+    }
+
+    public int edgeFrom(int edge) {
+        return edgeFrom[edge];
+    }
+
+    public int edgeTo(int edge) {
+        return edgeTo[edge];
+    }
+
+    public void forEachEdge(IntConsumer action) {
+        for (int edge = 0; edge < edgeHighWater; edge++) {
+            if (edgeFrom[edge] >= 0) action.accept(edge);
+        }
+    }
+
+    public int outDegree(int id) {
+        return outCount[id];
+    }
+
+    public int inDegree(int id) {
+        return inCount[id];
+    }
+
+    // Index based access, so hot loops can walk adjacency without allocating
+    public int outEdge(int id, int index) {
+        if (index >= outCount[id]) throw new IndexOutOfBoundsException(index);
+        return outEdges[id][index];
+    }
+
+    public int inEdge(int id, int index) {
+        if (index >= inCount[id]) throw new IndexOutOfBoundsException(index);
+        return inEdges[id][index];
+    }
+
+    public void forEachOutgoing(int id, IntConsumer edgeAction) {
+        int[] edges = outEdges[id];
+        for (int i = 0; i < outCount[id]; i++) edgeAction.accept(edges[i]);
+    }
+
+    public void forEachIncoming(int id, IntConsumer edgeAction) {
+        int[] edges = inEdges[id];
+        for (int i = 0; i < inCount[id]; i++) edgeAction.accept(edges[i]);
+    }
+
+    // Resets everything at once without notifying listeners
+    public void clear() {
+        Arrays.fill(alive, 0, nodeHighWater, false);
+        Arrays.fill(outEdges, 0, nodeHighWater, null);
+        Arrays.fill(inEdges, 0, nodeHighWater, null);
+        Arrays.fill(edgeFrom, 0, edgeHighWater, -1);
+        Arrays.fill(edgeTo, 0, edgeHighWater, -1);
+        nodeHighWater = nodeCount = 0;
+        edgeHighWater = edgeCount = 0;
+        freeNodes.clear();
+        freeEdges.clear();
+        edgesByEnds.clear();
+    }
+
+    private void checkNode(int id) {
+        if (!isNode(id)) throw new IllegalArgumentException("No node with id " + id);
+    }
+
+    private void checkEdge(int edge) {
+        if (!isEdge(edge)) throw new IllegalArgumentException("No edge with id " + edge);
+    }
+
+    private void ensureNodeCapacity(int required) {
+        if (required <= alive.length) return;
+
+        int capacity = Math.max(required, alive.length * 2);
+        alive = Arrays.copyOf(alive, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        outEdges = Arrays.copyOf(outEdges, capacity);
+        outCount = Arrays.copyOf(outCount, capacity);
+        inEdges = Arrays.copyOf(inEdges, capacity);
+        inCount = Arrays.copyOf(inCount, capacity);
+    }
+
+    private void ensureEdgeCapacity(int required) {
+        if (required <= edgeFrom.length) return;
+
+        int capacity = Math.max(required, edgeFrom.length * 2);
+        edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+        edgeTo = Arrays.copyOf(edgeTo, capacity);
+    }
+
+    private static int[] append(int[] values, int size, int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(INITIAL_DEGREE, size * 2));
+        }
+        values[size] = value;
+        return values;
+    }
+
+    private static int removeValue(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                // Adjacency order is irrelevant, so swap-remove
+                values[i] = values[size - 1];
+                return size - 1;
+            }
+        }
+        return size;
+    }
+
+    private static final class IntStack {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void push(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    // Open addressing with linear probing over packed (from, to) keys; node ids are never
+    // negative, so -1 can mark an empty slot
+    private static final class EdgeTable {
+        private static final long EMPTY = -1L;
+
+        private long[] keys = emptyKeys(16);
+        private int[] values = new int[16];
+        private int size = 0;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == EMPTY) return -1;
+            }
+        }
+
+        // The key must not be present yet
+        void put(long key, int value) {
+            if (2 * (size + 1) > keys.length) resize(keys.length * 2);
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int hole = slot(key, mask);
+            while (keys[hole] != key) {
+                if (keys[hole] == EMPTY) return;
+                hole = (hole + 1) & mask;
+            }
+
+            // Shift later entries of the probe run back instead of leaving a tombstone
+            for (int i = (hole + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+                int home = slot(keys[i], mask);
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = EMPTY;
+            size--;
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = emptyKeys(capacity);
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private static long[] emptyKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.javafx.javafx.lib.Model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+// Topological order of a GraphModel, kept up to date edge by edge (Pearce-Kelly).
+// Adding an edge that already agrees with the order costs nothing; otherwise only the
+// nodes whose position lies between its endpoints are searched and reordered.
+// Edges that close a cycle anyway (e.g. from a loaded file) are flagged and left out
+// of the order until they are removed.
+public class TopologicalOrder implements GraphModel.Listener {
+
+    private final GraphModel model;
+
+    // Position by node id and node by position; positions of removed nodes stay as holes
+    private int[] ord = new int[64];
+    private int[] nodeAt = new int[64];
+    private int size = 0;
+    private int holes = 0;
+    private final BitSet cyclicEdges = new BitSet();
+
+    private final BitSet visited = new BitSet();
+    private int[] forward = new int[16];
+    private int[] backward = new int[16];
+    private int[] stack = new int[16];
+
+    public TopologicalOrder(GraphModel model) {
+        this.model = model;
+        Arrays.fill(ord, -1);
+        rebuild();
+        model.addListener(this);
+    }
+
+    public void dispose() {
+        model.removeListener(this);
+    }
+
+    // Would connecting from -> to close a cycle? Searches only between the two positions
+    public boolean wouldCreateCycle(int from, int to) {
+        if (from == to) return true;
+        if (!model.isNode(from) || !model.isNode(to) || ord[from] < ord[to]) return false;
+
+        int reached = searchForward(to, from, ord[from]);
+        visited.clear();
+        return reached < 0;
+    }
+
+    public boolean isAcyclic() {
+        return cyclicEdges.isEmpty();
+    }
+
+    public boolean isCyclicEdge(int edge) {
+        return cyclicEdges.get(edge);
+    }
+
+    // Only meaningful for comparing two nodes, positions are not contiguous
+    public int position(int id) {
+        return ord[id];
+    }
+
+    public boolean precedes(int a, int b) {
+        return ord[a] < ord[b];
+    }
+
+    public void forEachInOrder(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            if (nodeAt[i] >= 0) action.accept(nodeAt[i]);
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[size - holes];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (nodeAt[i] >= 0) result[n++] = nodeAt[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void nodeAdded(int id) {
+        ensureIdCapacity(id + 1);
+        if (size == nodeAt.length) compactOrGrow();
+        ord[id] = size;
+        nodeAt[size++] = id;
+    }
+
+    @Override
+    public void nodeRemoved(int id) {
+        nodeAt[ord[id]] = -1;
+        ord[id] = -1;
+        holes++;
+    }
+
+    @Override
+    public void edgeAdded(int edge, int from, int to) {
+        int lowerBound = ord[to];
+        int upperBound = ord[from];
+        if (from != to && upperBound < lowerBound) return;
+
+        int forwardCount = from == to ? -1 : searchForward(to, from, upperBound);
+        if (forwardCount < 0) {
+            visited.clear();
+            cyclicEdges.set(edge);
+            return;
+        }
+        int backwardCount = searchBackward(from, lowerBound);
+        visited.clear();
+
+        reorder(forwardCount, backwardCount);
+    }
+
+    @Override
+    public void edgeRemoved(int edge, int from, int to) {
+        boolean wasCyclic = cyclicEdges.get(edge);
+        cyclicEdges.clear(edge);
+        // A flagged edge may only have closed a cycle through this one; flagged edges
+        // never constrain the order, so removing one cannot free any of the others
+        if (!wasCyclic && !cyclicEdges.isEmpty()) retryCyclicEdges();
+    }
+
+    // Adds every flagged edge back as if it were new; those still closing a cycle stay flagged
+    private void retryCyclicEdges() {
+        BitSet flagged = (BitSet) cyclicEdges.clone();
+        for (int edge = flagged.nextSetBit(0); edge >= 0; edge = flagged.nextSetBit(edge + 1)) {
+            cyclicEdges.clear(edge);
+            edgeAdded(edge, model.edgeFrom(edge), model.edgeTo(edge));
+        }
+    }
+
+    // Collects everything reachable from start with a position below upperBound into
+    // forward; returns how many, or -1 when target is reached
+    private int searchForward(int start, int target, int upperBound) {
+        int count = 0;
+        int top = 0;
+        stack = push(stack, top++, start);
+        visited.set(start);
+
+        while (top > 0) {
+            int node = stack[--top];
+            forward = push(forward, count++, node);
+
+            for (int i = 0; i < model.outDegree(node); i++) {
+                int edge = model.outEdge(node, i);
+                if (cyclicEdges.get(edge)) continue;
+
+                int next = model.edgeTo(edge);
+                if (next == target) return -1;
+                if (!visited.get(next) && ord[next] < upperBound) {
+                    visited.set(next);
+                    stack = push(stack, top++, next);
+                }
+            }
+        }
+        return count;
+    }
+
+    private int searchBackward(int start, int lowerBound) {
+        int count = 0;
+        int top = 0;
+        stack = push(stack, top++, start);
+        visited.set(start);
+
+        while (top > 0) {
+            int node = stack[--top];
+            backward = push(backward, count++, node);
+
+            for (int i = 0; i < model.inDegree(node); i++) {
+                int edge = model.inEdge(node, i);
+                if (cyclicEdges.get(edge)) continue;
+
+                int previous = model.edgeFrom(edge);
+                if (!visited.get(previous) && ord[previous] > lowerBound) {
+                    visited.set(previous);
+                    stack = push(stack, top++, previous);
+                }
+            }
+        }
+        return count;
+    }
+
+    // The affected nodes keep their pool of positions; everything that reaches the edge's
+    // source moves ahead of everything reachable from its target
+    private void reorder(int forwardCount, int backwardCount) {
+        sortByOrd(backward, backwardCount);
+        sortByOrd(forward, forwardCount);
+
+        int total = backwardCount + forwardCount;
+        int[] positions = new int[total];
+        for (int i = 0; i < backwardCount; i++) positions[i] = ord[backward[i]];
+        for (int i = 0; i < forwardCount; i++) positions[backwardCount + i] = ord[forward[i]];
+        Arrays.sort(positions);
+
+        for (int i = 0; i < total; i++) {
+            int node = i < backwardCount ? backward[i] : forward[i - backwardCount];
+            ord[node] = positions[i];
+            nodeAt[positions[i]] = node;
+        }
+    }
+
+    private void sortByOrd(int[] nodes, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) keys[i] = ((long) ord[nodes[i]] << 32) | nodes[i];
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) nodes[i] = (int) keys[i];
+    }
+
+    // Kahn's algorithm over the current model; nodes left on cycles go last
+    private void rebuild() {
+        int n = model.nodeCapacity();
+        ensureIdCapacity(n);
+        Arrays.fill(ord, -1);
+        nodeAt = new int[Math.max(64, n)];
+        size = 0;
+        holes = 0;
+        cyclicEdges.clear();
+
+        int[] remaining = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int id = 0; id < n; id++) {
+            if (!model.isNode(id)) continue;
+            remaining[id] = model.inDegree(id);
+            if (remaining[id] == 0) queue[tail++] = id;
+        }
+        while (head < tail) {
+            int id = queue[head++];
+            ord[id] = size;
+            nodeAt[size++] = id;
+            for (int i = 0; i < model.outDegree(id); i++) {
+                int next = model.edgeTo(model.outEdge(id, i));
+                if (--remaining[next] == 0) queue[tail++] = next;
+            }
+        }
+        for (int id = 0; id < n; id++) {
+            if (model.isNode(id) && ord[id] < 0) {
+                ord[id] = size;
+                nodeAt[size++] = id;
+            }
+        }
+
+        // Whatever points backwards now is part of a cycle
+        model.forEachEdge(edge -> {
+            if (ord[model.edgeFrom(edge)] >= ord[model.edgeTo(edge)]) cyclicEdges.set(edge);
+        });
+    }
+
+    private void compactOrGrow() {
+        if (holes > size / 2) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int node = nodeAt[i];
+                if (node < 0) continue;
+                ord[node] = n;
+                nodeAt[n++] = node;
+            }
+            Arrays.fill(nodeAt, n, size, -1);
+            size = n;
+            holes = 0;
+        } else {
+            nodeAt = Arrays.copyOf(nodeAt, nodeAt.length * 2);
+        }
+    }
+
+    private void ensureIdCapacity(int required) {
+        if (required <= ord.length) return;
+        int old = ord.length;
+        ord = Arrays.copyOf(ord, Math.max(required, old * 2));
+        Arrays.fill(ord, old, ord.length, -1);
+    }
+
+    private static int[] push(int[] values, int index, int value) {
+        if (index == values.length) values = Arrays.copyOf(values, index * 2);
+        values[index] = value;
+        return values;
+    }
+}
@@ -0,0 +1,144 @@
+package com.javafx.javafx.lib.Persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Binary graph format, big-endian:
+//   header      magic "NEGR", version, string count, node count, edge count
+//   string pool per string: byte length, UTF-8 bytes
+//   node table  per node: id, x, y, title string index, maxConnections
+//   edge table  per edge: from id, to id
+public final class GraphFile {
+
+    private static final int MAGIC = 0x4E454752; // "NEGR"
+    private static final int VERSION = 1;
+    private static final int NODE_RECORD_BYTES = 4 + 8 + 8 + 4 + 4;
+    private static final int EDGE_RECORD_BYTES = 4 + 4;
+
+    private GraphFile() {
+    }
+
+    // Written next to the target and moved over it, so a save that fails partway leaves
+    // the previous file as it was
+    public static void write(Path path, GraphSnapshot graph) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeBody(out, graph);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Everything after the header; TiledGraphFile stores one body per tile
+    static void writeBody(DataOutputStream out, GraphSnapshot graph) throws IOException {
+        out.writeInt(graph.strings().length);
+        out.writeInt(graph.nodeCount());
+        out.writeInt(graph.edgeCount());
+
+        for (String s : graph.strings()) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            out.writeInt(graph.nodeIds()[i]);
+            out.writeDouble(graph.x()[i]);
+            out.writeDouble(graph.y()[i]);
+            out.writeInt(graph.titles()[i]);
+            out.writeInt(graph.maxConnections()[i]);
+        }
+
+        for (int i = 0; i < graph.edgeCount(); i++) {
+            out.writeInt(graph.edgeFrom()[i]);
+            out.writeInt(graph.edgeTo()[i]);
+        }
+    }
+
+    public static GraphSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Graph file too large: " + path);
+
+            // Mapped, so the tables are decoded straight from the page cache without copying through a stream
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return read(buffer);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                throw new IOException("Truncated or corrupt graph file: " + path, e);
+            }
+        }
+    }
+
+    private static GraphSnapshot read(MappedByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) throw new IOException("Not a graph file");
+        int version = buffer.getInt();
+        if (version != VERSION) throw new IOException("Unsupported graph file version " + version);
+
+        return readBody(buffer);
+    }
+
+    static GraphSnapshot readBody(ByteBuffer buffer) throws IOException {
+        int stringCount = buffer.getInt();
+        int nodeCount = buffer.getInt();
+        int edgeCount = buffer.getInt();
+        // Checked before anything is allocated, so a corrupt header cannot ask for gigabytes
+        if (stringCount < 0 || nodeCount < 0 || edgeCount < 0
+                || 4L * stringCount + (long) NODE_RECORD_BYTES * nodeCount + (long) EDGE_RECORD_BYTES * edgeCount > buffer.remaining()) {
+            throw new IOException("Corrupt graph header");
+        }
+
+        String[] strings = new String[stringCount];
+        byte[] scratch = new byte[64];
+        for (int i = 0; i < stringCount; i++) {
+            int length = buffer.getInt();
+            if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int[] nodeIds = new int[nodeCount];
+        double[] x = new double[nodeCount];
+        double[] y = new double[nodeCount];
+        int[] titles = new int[nodeCount];
+        int[] maxConnections = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodeIds[i] = buffer.getInt();
+            x[i] = buffer.getDouble();
+            y[i] = buffer.getDouble();
+            titles[i] = buffer.getInt();
+            maxConnections[i] = buffer.getInt();
+            if (nodeIds[i] < 0) throw new IOException("Negative node id " + nodeIds[i]);
+            if (titles[i] < 0 || titles[i] >= stringCount) throw new IOException("Bad title index for node " + nodeIds[i]);
+        }
+        int[] sortedIds = nodeIds.clone();
+        Arrays.sort(sortedIds);
+        for (int i = 1; i < sortedIds.length; i++) {
+            if (sortedIds[i] == sortedIds[i - 1]) throw new IOException("Duplicate node id " + sortedIds[i]);
+        }
+
+        int[] edgeFrom = new int[edgeCount];
+        int[] edgeTo = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            edgeFrom[i] = buffer.getInt();
+            edgeTo[i] = buffer.getInt();
+        }
+
+        return new GraphSnapshot(strings, nodeIds, x, y, titles, maxConnections, edgeFrom, edgeTo);
+    }
+}
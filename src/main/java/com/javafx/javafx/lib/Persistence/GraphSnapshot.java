@@ -0,0 +1,20 @@
+package com.javafx.javafx.lib.Persistence;
+
+// Flat, toolkit-free copy of a graph as stored on disk. Titles are indexes into
+// the string pool, edges refer to entries of nodeIds
+public record GraphSnapshot(String[] strings,
+                            int[] nodeIds, double[] x, double[] y, int[] titles, int[] maxConnections,
+                            int[] edgeFrom, int[] edgeTo) {
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return edgeFrom.length;
+    }
+
+    public String title(int index) {
+        return strings[titles[index]];
+    }
+}
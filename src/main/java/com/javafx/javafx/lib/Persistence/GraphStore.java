@@ -0,0 +1,173 @@
+package com.javafx.javafx.lib.Persistence;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Model.GraphModel;
+import javafx.animation.AnimationTimer;
+import javafx.scene.layout.Pane;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+// Saves the editor's graph to a GraphFile and rebuilds the scene from one
+public class GraphStore {
+
+    @FunctionalInterface
+    public interface NodeFactory {
+        // Creates a node without attaching or registering it
+        GraphNode create(String title, int maxConnections);
+    }
+
+    // Work per pulse while loading, so the window stays responsive on huge graphs
+    private static final int NODES_PER_BATCH = 10_000;
+    private static final int EDGES_PER_BATCH = 20_000;
+
+    private final ConnectionManager connectionManager;
+    private final Pane content;
+    private final NodeFactory nodeFactory;
+    private AnimationTimer loading;
+
+    public GraphStore(ConnectionManager connectionManager, Pane content, NodeFactory nodeFactory) {
+        this.connectionManager = connectionManager;
+        this.content = content;
+        this.nodeFactory = nodeFactory;
+    }
+
+    public GraphSnapshot capture() {
+        GraphModel model = connectionManager.getModel();
+        int nodeCount = model.nodeCount();
+        int edgeCount = model.edgeCount();
+
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int[] nodeIds = new int[nodeCount];
+        double[] x = new double[nodeCount];
+        double[] y = new double[nodeCount];
+        int[] titles = new int[nodeCount];
+        int[] maxConnections = new int[nodeCount];
+
+        int i = 0;
+        for (int id = 0; id < model.nodeCapacity(); id++) {
+            if (!model.isNode(id)) continue;
+            GraphNode node = connectionManager.getNode(id);
+
+            nodeIds[i] = id;
+            x[i] = node.getLayoutX();
+            y[i] = node.getLayoutY();
+            titles[i] = stringIndex.computeIfAbsent(node.getTitle(), s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+            maxConnections[i] = node.getMaxConnections();
+            i++;
+        }
+
+        int[] edgeFrom = new int[edgeCount];
+        int[] edgeTo = new int[edgeCount];
+        int e = 0;
+        for (int edge = 0; edge < model.edgeCapacity(); edge++) {
+            if (!model.isEdge(edge)) continue;
+            edgeFrom[e] = model.edgeFrom(edge);
+            edgeTo[e] = model.edgeTo(edge);
+            e++;
+        }
+
+        return new GraphSnapshot(strings.toArray(String[]::new), nodeIds, x, y, titles, maxConnections, edgeFrom, edgeTo);
+    }
+
+    // Replaces the current graph; the scene is rebuilt over the following pulses
+    public void load(Path path, Runnable onLoaded) throws IOException {
+        GraphSnapshot graph = GraphFile.read(path);
+
+        cancelLoading();
+        clear();
+
+        // Ids in the file are only unique, not dense; sizing an array by them would let a
+        // single large id exhaust the heap
+        Map<Integer, GraphNode> byFileId = new HashMap<>(graph.nodeCount() * 2);
+
+        int[] rejected = new int[1];
+
+        loading = new AnimationTimer() {
+            private int nextNode = 0;
+            private int nextEdge = 0;
+
+            @Override
+            public void handle(long now) {
+                if (nextNode < graph.nodeCount()) {
+                    nextNode = addNodes(graph, byFileId, nextNode);
+                } else if (nextEdge < graph.edgeCount()) {
+                    nextEdge = addEdges(graph, byFileId, nextEdge, rejected);
+                } else {
+                    stop();
+                    loading = null;
+                    if (rejected[0] > 0) {
+                        System.err.println("Skipped " + rejected[0] + " wires of " + path + " that would close a cycle");
+                    }
+                    if (onLoaded != null) onLoaded.run();
+                }
+            }
+        };
+        loading.start();
+    }
+
+    public void clear() {
+        GraphModel model = connectionManager.getModel();
+        List<GraphNode> nodes = new ArrayList<>(model.nodeCount());
+        model.forEachNode(id -> nodes.add(connectionManager.getNode(id)));
+
+        connectionManager.removeNodes(nodes);
+        content.getChildren().removeAll(new HashSet<>(nodes));
+    }
+
+    private void cancelLoading() {
+        if (loading != null) {
+            loading.stop();
+            loading = null;
+        }
+    }
+
+    private int addNodes(GraphSnapshot graph, Map<Integer, GraphNode> byFileId, int from) {
+        int to = Math.min(from + NODES_PER_BATCH, graph.nodeCount());
+        List<GraphNode> batch = new ArrayList<>(to - from);
+
+        for (int i = from; i < to; i++) {
+            GraphNode node = nodeFactory.create(graph.title(i), graph.maxConnections()[i]);
+            node.setLayoutX(graph.x()[i]);
+            node.setLayoutY(graph.y()[i]);
+            byFileId.put(graph.nodeIds()[i], node);
+            batch.add(node);
+        }
+
+        // One children change for the whole batch instead of one per node
+        content.getChildren().addAll(batch);
+        for (GraphNode node : batch) {
+            connectionManager.registerNode(node);
+        }
+        return to;
+    }
+
+    // A hand-edited or corrupt file may hold cycles the editor would never have let through;
+    // those wires are counted in rejected[0] and left out
+    private int addEdges(GraphSnapshot graph, Map<Integer, GraphNode> byFileId, int from, int[] rejected) {
+        int to = Math.min(from + EDGES_PER_BATCH, graph.edgeCount());
+
+        for (int i = from; i < to; i++) {
+            GraphNode source = byFileId.get(graph.edgeFrom()[i]);
+            GraphNode target = byFileId.get(graph.edgeTo()[i]);
+            if (source == null || target == null) continue;
+
+            if (connectionManager.getTopologicalOrder().wouldCreateCycle(source.getModelId(), target.getModelId())) {
+                rejected[0]++;
+                continue;
+            }
+            connectionManager.connect(source, target);
+        }
+        return to;
+    }
+}
@@ -0,0 +1,216 @@
+package com.javafx.javafx.lib.Persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A graph split into square spatial tiles, so a viewer only decodes what it shows:
+//   header     magic "NEGT", version, tile size, tile count
+//   tile index per tile: column, row, offset, length, node count
+//   tiles      one GraphFile body each, holding the tile's nodes and every edge
+//              touching them (an edge between two tiles is stored in both)
+public final class TiledGraphFile implements Closeable {
+
+    public record Tile(int column, int row, long offset, int length, int nodeCount) {
+    }
+
+    private static final int MAGIC = 0x4E454754; // "NEGT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int INDEX_ENTRY_BYTES = 4 + 4 + 8 + 4 + 4;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final double tileSize;
+    private final Map<Long, Tile> tiles;
+
+    private TiledGraphFile(FileChannel channel, MappedByteBuffer buffer, double tileSize, Map<Long, Tile> tiles) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.tileSize = tileSize;
+        this.tiles = tiles;
+    }
+
+    public static void write(Path path, GraphSnapshot graph, double tileSize) throws IOException {
+        if (tileSize <= 0) throw new IllegalArgumentException("tileSize must be positive");
+
+        Map<Long, List<Integer>> nodesByTile = new LinkedHashMap<>();
+        Map<Integer, Long> tileOfNode = new HashMap<>();
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            long key = key(cell(graph.x()[i], tileSize), cell(graph.y()[i], tileSize));
+            nodesByTile.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            tileOfNode.put(graph.nodeIds()[i], key);
+        }
+
+        Map<Long, List<Integer>> edgesByTile = new HashMap<>();
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            Long fromTile = tileOfNode.get(graph.edgeFrom()[e]);
+            Long toTile = tileOfNode.get(graph.edgeTo()[e]);
+            if (fromTile == null || toTile == null) continue;
+
+            edgesByTile.computeIfAbsent(fromTile, k -> new ArrayList<>()).add(e);
+            if (!toTile.equals(fromTile)) {
+                edgesByTile.computeIfAbsent(toTile, k -> new ArrayList<>()).add(e);
+            }
+        }
+
+        // Tiles are encoded first, their offsets are only known afterwards
+        List<byte[]> blobs = new ArrayList<>(nodesByTile.size());
+        for (Map.Entry<Long, List<Integer>> entry : nodesByTile.entrySet()) {
+            GraphSnapshot tile = subset(graph, entry.getValue(), edgesByTile.getOrDefault(entry.getKey(), List.of()));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                GraphFile.writeBody(out, tile);
+            }
+            blobs.add(bytes.toByteArray());
+        }
+
+        // The file may be open and mapped by a loader right now; truncating it in place would
+        // pull the pages out from under it, replacing it leaves the old mapping intact
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeDouble(tileSize);
+            out.writeInt(nodesByTile.size());
+
+            long offset = HEADER_BYTES + (long) INDEX_ENTRY_BYTES * nodesByTile.size();
+            int i = 0;
+            for (Map.Entry<Long, List<Integer>> entry : nodesByTile.entrySet()) {
+                long key = entry.getKey();
+                out.writeInt((int) (key >> 32));
+                out.writeInt((int) key);
+                out.writeLong(offset);
+                out.writeInt(blobs.get(i).length);
+                out.writeInt(entry.getValue().size());
+                offset += blobs.get(i).length;
+                i++;
+            }
+
+            for (byte[] blob : blobs) {
+                out.write(blob);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static TiledGraphFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Graph file too large: " + path);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a tiled graph file");
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported tiled graph file version " + version);
+
+            double tileSize = buffer.getDouble();
+            int tileCount = buffer.getInt();
+            Map<Long, Tile> tiles = new HashMap<>(tileCount * 2);
+            for (int i = 0; i < tileCount; i++) {
+                Tile tile = new Tile(buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getInt(), buffer.getInt());
+                if (tile.offset() < 0 || tile.offset() + tile.length() > channel.size()) {
+                    throw new IOException("Tile " + tile.column() + "," + tile.row() + " lies outside the file");
+                }
+                tiles.put(key(tile.column(), tile.row()), tile);
+            }
+            return new TiledGraphFile(channel, buffer, tileSize, tiles);
+        } catch (BufferUnderflowException e) {
+            channel.close();
+            throw new IOException("Truncated tiled graph file: " + path, e);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public double getTileSize() {
+        return tileSize;
+    }
+
+    public Collection<Tile> getTiles() {
+        return Collections.unmodifiableCollection(tiles.values());
+    }
+
+    public Tile getTile(int column, int row) {
+        return tiles.get(key(column, row));
+    }
+
+    // Safe to call from several threads at once, each decode reads its own slice
+    public GraphSnapshot readTile(Tile tile) throws IOException {
+        try {
+            return GraphFile.readBody(buffer.slice((int) tile.offset(), tile.length()));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Corrupt tile " + tile.column() + "," + tile.row(), e);
+        }
+    }
+
+    public int cell(double coordinate) {
+        return cell(coordinate, tileSize);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static long key(int column, int row) {
+        return ((long) column << 32) | (row & 0xffffffffL);
+    }
+
+    private static int cell(double coordinate, double tileSize) {
+        return (int) Math.floor(coordinate / tileSize);
+    }
+
+    private static GraphSnapshot subset(GraphSnapshot graph, List<Integer> nodes, List<Integer> edges) {
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int n = nodes.size();
+        int[] nodeIds = new int[n];
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] titles = new int[n];
+        int[] maxConnections = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            int source = nodes.get(i);
+            nodeIds[i] = graph.nodeIds()[source];
+            x[i] = graph.x()[source];
+            y[i] = graph.y()[source];
+            titles[i] = stringIndex.computeIfAbsent(graph.title(source), s -> {
+                strings.add(s);
+                return strings.size() - 1;
+            });
+            maxConnections[i] = graph.maxConnections()[source];
+        }
+
+        int[] edgeFrom = new int[edges.size()];
+        int[] edgeTo = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            edgeFrom[i] = graph.edgeFrom()[edges.get(i)];
+            edgeTo[i] = graph.edgeTo()[edges.get(i)];
+        }
+
+        return new GraphSnapshot(strings.toArray(String[]::new), nodeIds, x, y, titles, maxConnections, edgeFrom, edgeTo);
+    }
+}
@@ -0,0 +1,582 @@
+package com.javafx.javafx.lib.Persistence;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.History.EditJournal;
+import com.javafx.javafx.lib.Model.GraphModel;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Point2D;
+import javafx.scene.layout.Pane;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Streams the tiles of a TiledGraphFile in and out of the scene as the viewport moves.
+// Tiles are decoded on background threads; only finished tiles reach the FX thread.
+// Evicted tiles are re-read from the file, except tiles the user has edited: those are
+// written to a scratch file first and read back from there
+public class TiledGraphLoader {
+
+    // offScene holds the tile's wires into tiles that are not loaded, as packed id pairs;
+    // with the scene they make up every wire of the tile
+    private record LoadedTile(GraphSnapshot snapshot, List<GraphNode> nodes, Set<Long> offScene) {
+    }
+
+    // Where the latest edited copy of a tile lives in the scratch file
+    private record Spill(long offset, int length) {
+    }
+
+    // Upper bound on live tiles, so zooming far out cannot pull in the whole file
+    private static final int MAX_LOADED_TILES = 256;
+
+    private final TiledGraphFile file;
+    private final ConnectionManager connectionManager;
+    private final Pane viewport;
+    private final Pane content;
+    private final GraphStore.NodeFactory nodeFactory;
+    private final ExecutorService decoder;
+
+    private final Map<Long, LoadedTile> loaded = new HashMap<>();
+    private final Set<Long> pending = new HashSet<>();
+    private final Map<Integer, GraphNode> nodesById = new HashMap<>();
+    private final Map<GraphNode, Integer> idOf = new HashMap<>();
+    private final Map<GraphNode, Long> tileOf = new HashMap<>();
+    private final Set<Long> edited = new HashSet<>();
+
+    // Edited tiles that have been evicted. Nodes the user added belong to no tile and are
+    // never evicted; wires to them are stored under negative ids handed out on first spill
+    private final Map<Long, Spill> spilled = new HashMap<>();
+    private FileChannel scratch;
+    private long scratchEnd = 0;
+    private int nextLocalId = -1;
+    // History keys of evicted nodes by id, so undo still reaches them when their tile returns
+    private final Map<Integer, Integer> historyKeys = new HashMap<>();
+    // Set while the loader itself adds or removes nodes and wires, which are not edits
+    private boolean streaming = false;
+    private Set<Long> wanted = new HashSet<>();
+    private boolean scheduled = false;
+    private boolean disposed = false;
+
+    private final InvalidationListener viewportListener = obs -> requestRefresh();
+    private final GraphModel.Listener editListener = new GraphModel.Listener() {
+        @Override
+        public void nodeRemoved(int id) {
+            markEdited(id);
+        }
+
+        @Override
+        public void edgeAdded(int edge, int from, int to) {
+            markEdited(from);
+            markEdited(to);
+        }
+
+        @Override
+        public void edgeRemoved(int edge, int from, int to) {
+            markEdited(from);
+            markEdited(to);
+        }
+    };
+    private final AnimationTimer refreshTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            refresh();
+        }
+    };
+
+    public TiledGraphLoader(TiledGraphFile file, ConnectionManager connectionManager, Pane viewport, Pane content,
+                            GraphStore.NodeFactory nodeFactory) {
+        this.file = file;
+        this.connectionManager = connectionManager;
+        this.viewport = viewport;
+        this.content = content;
+        this.nodeFactory = nodeFactory;
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.decoder = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tile-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        viewport.widthProperty().addListener(viewportListener);
+        viewport.heightProperty().addListener(viewportListener);
+        content.localToParentTransformProperty().addListener(viewportListener);
+        connectionManager.getModel().addListener(editListener);
+        requestRefresh();
+    }
+
+    public void requestRefresh() {
+        if (disposed || scheduled) return;
+        scheduled = true;
+        refreshTimer.start();
+    }
+
+    public int getLoadedTileCount() {
+        return loaded.size();
+    }
+
+    public void dispose() throws IOException {
+        disposed = true;
+        refreshTimer.stop();
+        decoder.shutdownNow();
+        viewport.widthProperty().removeListener(viewportListener);
+        viewport.heightProperty().removeListener(viewportListener);
+        content.localToParentTransformProperty().removeListener(viewportListener);
+        connectionManager.getModel().removeListener(editListener);
+
+        evict(new ArrayList<>(loaded.keySet()));
+        pending.clear();
+        file.close();
+        if (scratch != null) scratch.close();
+    }
+
+    // The whole graph as it is now: the scene for loaded tiles, the file for all others.
+    // Takes the scene's snapshot from GraphStore.capture(), whose ids are model ids
+    public GraphSnapshot capture(GraphSnapshot scene) throws IOException {
+        List<GraphSnapshot> unloaded = new ArrayList<>();
+        for (TiledGraphFile.Tile tile : file.getTiles()) {
+            long key = TiledGraphFile.key(tile.column(), tile.row());
+            if (!loaded.containsKey(key)) unloaded.add(read(key, tile));
+        }
+
+        // Nodes from the file keep their file id, nodes the user added get fresh ones; so do
+        // those with a negative scratch id, which wires of spilled tiles refer to
+        Map<Integer, Integer> fileIdOf = new HashMap<>();
+        int nextId = 0;
+        for (Map.Entry<Integer, GraphNode> entry : nodesById.entrySet()) {
+            int modelId = entry.getValue().getModelId();
+            if (modelId >= 0) fileIdOf.put(modelId, entry.getKey());
+            nextId = Math.max(nextId, entry.getKey() + 1);
+        }
+        for (GraphSnapshot tile : unloaded) {
+            for (int id : tile.nodeIds()) nextId = Math.max(nextId, id + 1);
+        }
+
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int nodeCount = scene.nodeCount();
+        for (GraphSnapshot tile : unloaded) nodeCount += tile.nodeCount();
+        int[] nodeIds = new int[nodeCount];
+        double[] x = new double[nodeCount];
+        double[] y = new double[nodeCount];
+        int[] titles = new int[nodeCount];
+        int[] maxConnections = new int[nodeCount];
+        Map<Integer, Integer> sceneIds = new HashMap<>(scene.nodeCount() * 2);
+        Map<Integer, Integer> localIds = new HashMap<>();
+        Set<Integer> unloadedIds = new HashSet<>();
+
+        int n = 0;
+        for (int i = 0; i < scene.nodeCount(); i++, n++) {
+            Integer fileId = fileIdOf.get(scene.nodeIds()[i]);
+            nodeIds[n] = fileId != null && fileId >= 0 ? fileId : nextId++;
+            if (fileId != null && fileId < 0) localIds.put(fileId, nodeIds[n]);
+            sceneIds.put(scene.nodeIds()[i], nodeIds[n]);
+            copyNode(scene, i, n, x, y, titles, maxConnections, strings, stringIndex);
+        }
+        for (GraphSnapshot tile : unloaded) {
+            for (int i = 0; i < tile.nodeCount(); i++, n++) {
+                nodeIds[n] = tile.nodeIds()[i];
+                unloadedIds.add(nodeIds[n]);
+                copyNode(tile, i, n, x, y, titles, maxConnections, strings, stringIndex);
+            }
+        }
+        Set<Integer> liveIds = new HashSet<>(sceneIds.values());
+
+        int edgeCapacity = scene.edgeCount();
+        for (GraphSnapshot tile : unloaded) edgeCapacity += tile.edgeCount();
+        int[] edgeFrom = new int[edgeCapacity];
+        int[] edgeTo = new int[edgeCapacity];
+
+        int m = 0;
+        for (int e = 0; e < scene.edgeCount(); e++, m++) {
+            edgeFrom[m] = sceneIds.get(scene.edgeFrom()[e]);
+            edgeTo[m] = sceneIds.get(scene.edgeTo()[e]);
+        }
+        // Edges among loaded nodes are all in the scene already; an edge between two unloaded
+        // tiles is stored in both of them, and one ending at a deleted node is dropped
+        Set<Long> seen = new HashSet<>();
+        for (GraphSnapshot tile : unloaded) {
+            for (int e = 0; e < tile.edgeCount(); e++) {
+                boolean fromUnloaded = unloadedIds.contains(tile.edgeFrom()[e]);
+                boolean toUnloaded = unloadedIds.contains(tile.edgeTo()[e]);
+                if (!fromUnloaded && !toUnloaded) continue;
+
+                Integer from = fromUnloaded ? Integer.valueOf(tile.edgeFrom()[e]) : liveId(tile.edgeFrom()[e], liveIds, localIds);
+                Integer to = toUnloaded ? Integer.valueOf(tile.edgeTo()[e]) : liveId(tile.edgeTo()[e], liveIds, localIds);
+                if (from == null || to == null) continue;
+                if (!seen.add(edgeKey(from, to))) continue;
+
+                edgeFrom[m] = from;
+                edgeTo[m] = to;
+                m++;
+            }
+        }
+        edgeFrom = Arrays.copyOf(edgeFrom, m);
+        edgeTo = Arrays.copyOf(edgeTo, m);
+
+        return new GraphSnapshot(strings.toArray(String[]::new), nodeIds, x, y, titles, maxConnections, edgeFrom, edgeTo);
+    }
+
+    // Id in the saved graph of a node that is in the scene, or null when it has been deleted
+    private static Integer liveId(int id, Set<Integer> liveIds, Map<Integer, Integer> localIds) {
+        if (id < 0) return localIds.get(id);
+        return liveIds.contains(id) ? id : null;
+    }
+
+    private static void copyNode(GraphSnapshot source, int from, int to, double[] x, double[] y, int[] titles,
+                                 int[] maxConnections, List<String> strings, Map<String, Integer> stringIndex) {
+        x[to] = source.x()[from];
+        y[to] = source.y()[from];
+        titles[to] = stringIndex.computeIfAbsent(source.title(from), s -> {
+            strings.add(s);
+            return strings.size() - 1;
+        });
+        maxConnections[to] = source.maxConnections()[from];
+    }
+
+    private void refresh() {
+        if (disposed) return;
+
+        Point2D topLeft = content.parentToLocal(0, 0);
+        Point2D bottomRight = content.parentToLocal(viewport.getWidth(), viewport.getHeight());
+        if (topLeft == null || bottomRight == null) return;
+
+        // One tile of margin, so neighbours are already decoded when they scroll in
+        int minColumn = file.cell(Math.min(topLeft.getX(), bottomRight.getX())) - 1;
+        int maxColumn = file.cell(Math.max(topLeft.getX(), bottomRight.getX())) + 1;
+        int minRow = file.cell(Math.min(topLeft.getY(), bottomRight.getY())) - 1;
+        int maxRow = file.cell(Math.max(topLeft.getY(), bottomRight.getY())) + 1;
+        double centerColumn = (minColumn + maxColumn) / 2.0;
+        double centerRow = (minRow + maxRow) / 2.0;
+
+        List<TiledGraphFile.Tile> inRange = new ArrayList<>();
+        long rangeSize = (long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1);
+        if (rangeSize > file.getTiles().size()) {
+            for (TiledGraphFile.Tile tile : file.getTiles()) {
+                if (tile.column() >= minColumn && tile.column() <= maxColumn
+                        && tile.row() >= minRow && tile.row() <= maxRow) {
+                    inRange.add(tile);
+                }
+            }
+        } else {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int row = minRow; row <= maxRow; row++) {
+                    TiledGraphFile.Tile tile = file.getTile(column, row);
+                    if (tile != null) inRange.add(tile);
+                }
+            }
+        }
+
+        // Nearest tiles first, both for the cap and for the decode order
+        inRange.sort(Comparator.comparingDouble(tile -> {
+            double dc = tile.column() - centerColumn;
+            double dr = tile.row() - centerRow;
+            return dc * dc + dr * dr;
+        }));
+        if (inRange.size() > MAX_LOADED_TILES) inRange = inRange.subList(0, MAX_LOADED_TILES);
+
+        Set<Long> nowWanted = new HashSet<>();
+        for (TiledGraphFile.Tile tile : inRange) {
+            nowWanted.add(TiledGraphFile.key(tile.column(), tile.row()));
+        }
+        wanted = nowWanted;
+
+        // Edited tiles only leave once their edits are safe in the scratch file
+        List<Long> leaving = new ArrayList<>();
+        for (Long key : loaded.keySet()) {
+            if (!nowWanted.contains(key) && (!isEdited(key) || spill(key))) leaving.add(key);
+        }
+        evict(leaving);
+
+        for (TiledGraphFile.Tile tile : inRange) {
+            long key = TiledGraphFile.key(tile.column(), tile.row());
+            if (loaded.containsKey(key) || !pending.add(key)) continue;
+            Spill spill = spilled.get(key);
+            decoder.execute(() -> decode(key, tile, spill));
+        }
+    }
+
+    // Runs on a decoder thread
+    private void decode(long key, TiledGraphFile.Tile tile, Spill spill) {
+        try {
+            GraphSnapshot snapshot = spill != null ? readSpill(spill) : file.readTile(tile);
+            Platform.runLater(() -> attach(key, tile, snapshot));
+        } catch (IOException e) {
+            System.err.println("Could not read tile " + tile.column() + "," + tile.row() + ": " + e.getMessage());
+            Platform.runLater(() -> pending.remove(key));
+        }
+    }
+
+    private GraphSnapshot read(long key, TiledGraphFile.Tile tile) throws IOException {
+        Spill spill = spilled.get(key);
+        return spill != null ? readSpill(spill) : file.readTile(tile);
+    }
+
+    // Positional reads, so decoder threads can share the channel
+    private GraphSnapshot readSpill(Spill spill) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(spill.length());
+        while (buffer.hasRemaining()) {
+            if (scratch.read(buffer, spill.offset() + buffer.position()) < 0) throw new IOException("Scratch file truncated");
+        }
+        buffer.flip();
+        return GraphFile.readBody(buffer);
+    }
+
+    private void attach(long key, TiledGraphFile.Tile source, GraphSnapshot tile) {
+        pending.remove(key);
+        // The viewport may have moved on while the tile was decoding
+        if (disposed || !wanted.contains(key) || loaded.containsKey(key)) return;
+
+        EditJournal journal = connectionManager.getJournal();
+        List<GraphNode> nodes = new ArrayList<>(tile.nodeCount());
+        for (int i = 0; i < tile.nodeCount(); i++) {
+            GraphNode node = nodeFactory.create(tile.title(i), tile.maxConnections()[i]);
+            node.setLayoutX(tile.x()[i]);
+            node.setLayoutY(tile.y()[i]);
+            nodesById.put(tile.nodeIds()[i], node);
+            idOf.put(node, tile.nodeIds()[i]);
+            tileOf.put(node, key);
+            Integer historyKey = historyKeys.remove(tile.nodeIds()[i]);
+            if (historyKey != null && journal != null) journal.adopt(node, historyKey);
+            nodes.add(node);
+        }
+
+        streaming = true;
+        content.getChildren().addAll(nodes);
+        for (GraphNode node : nodes) {
+            connectionManager.registerNode(node);
+        }
+        Set<Long> offScene = new HashSet<>();
+        loaded.put(key, new LoadedTile(tile, nodes, offScene));
+
+        // Edges to tiles that are not loaded yet are picked up when the other tile arrives
+        int rejected = 0;
+        for (int i = 0; i < tile.edgeCount(); i++) {
+            GraphNode from = nodesById.get(tile.edgeFrom()[i]);
+            GraphNode to = nodesById.get(tile.edgeTo()[i]);
+            if (from == null || to == null) {
+                offScene.add(edgeKey(tile.edgeFrom()[i], tile.edgeTo()[i]));
+                continue;
+            }
+            // Nodes deleted by the user since keep their id here but are no longer registered
+            if (from.getModelId() < 0 || to.getModelId() < 0) continue;
+            if (connectionManager.connectionExists(from, to)) continue;
+            // A corrupt or hand-edited file may close a cycle, within the tile or across tiles
+            if (connectionManager.getTopologicalOrder().wouldCreateCycle(from.getModelId(), to.getModelId())) {
+                rejected++;
+                continue;
+            }
+
+            connectionManager.connect(from, to);
+        }
+        streaming = false;
+
+        // Wires the other tiles kept aside for this one are in the scene again
+        for (LoadedTile other : loaded.values()) {
+            other.offScene().removeIf(edge -> nodesById.containsKey(edgeFrom(edge)) && nodesById.containsKey(edgeTo(edge)));
+        }
+
+        if (rejected > 0) {
+            System.err.println("Skipped " + rejected + " wires of tile " + source.column() + "," + source.row()
+                    + " that would close a cycle");
+        }
+    }
+
+    // Writes the tile as it is now to the scratch file; false leaves it loaded
+    private boolean spill(long key) {
+        try {
+            GraphSnapshot snapshot = snapshotOf(key);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                GraphFile.writeBody(out, snapshot);
+            }
+
+            if (scratch == null) {
+                Path path = Files.createTempFile("tiles", ".scratch");
+                scratch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            // Appended, so decoder threads still reading an older copy are not disturbed;
+            // the space of older copies is not reused
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long offset = scratchEnd;
+            while (buffer.hasRemaining()) scratch.write(buffer, offset + buffer.position());
+            scratchEnd += buffer.capacity();
+
+            spilled.put(key, new Spill(offset, buffer.capacity()));
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not move an edited tile out of memory, keeping it loaded: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // The tile's live nodes with their current state and every wire that touches them
+    private GraphSnapshot snapshotOf(long key) {
+        LoadedTile tile = loaded.get(key);
+        GraphModel model = connectionManager.getModel();
+
+        List<GraphNode> nodes = new ArrayList<>(tile.nodes().size());
+        for (GraphNode node : tile.nodes()) {
+            if (node.getModelId() >= 0) nodes.add(node);
+        }
+
+        List<String> strings = new ArrayList<>();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        int[] nodeIds = new int[nodes.size()];
+        double[] x = new double[nodes.size()];
+        double[] y = new double[nodes.size()];
+        int[] titles = new int[nodes.size()];
+        int[] maxConnections = new int[nodes.size()];
+        List<int[]> edges = new ArrayList<>();
+
+        for (int i = 0; i < nodes.size(); i++) {
+            GraphNode node = nodes.get(i);
+            nodeIds[i] = idOf.get(node);
+            x[i] = node.getLayoutX();
+            y[i] = node.getLayoutY();
+            titles[i] = stringIndex.computeIfAbsent(node.getTitle(), t -> {
+                strings.add(t);
+                return strings.size() - 1;
+            });
+            maxConnections[i] = node.getMaxConnections();
+
+            int id = node.getModelId();
+            for (int k = 0; k < model.outDegree(id); k++) {
+                edges.add(new int[]{nodeIds[i], idFor(connectionManager.getNode(model.edgeTo(model.outEdge(id, k))))});
+            }
+            // Wires within the tile are already among the outgoing ones
+            for (int k = 0; k < model.inDegree(id); k++) {
+                GraphNode source = connectionManager.getNode(model.edgeFrom(model.inEdge(id, k)));
+                if (!Long.valueOf(key).equals(tileOf.get(source))) edges.add(new int[]{idFor(source), nodeIds[i]});
+            }
+        }
+
+        for (long edge : tile.offScene()) {
+            GraphNode from = nodesById.get(edgeFrom(edge));
+            GraphNode own = from != null ? from : nodesById.get(edgeTo(edge));
+            if (own != null && own.getModelId() >= 0) edges.add(new int[]{edgeFrom(edge), edgeTo(edge)});
+        }
+
+        int[] edgeFrom = new int[edges.size()];
+        int[] edgeTo = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            edgeFrom[e] = edges.get(e)[0];
+            edgeTo[e] = edges.get(e)[1];
+        }
+        return new GraphSnapshot(strings.toArray(String[]::new), nodeIds, x, y, titles, maxConnections, edgeFrom, edgeTo);
+    }
+
+    // Nodes the user added get a negative id the first time a spilled wire refers to them
+    private int idFor(GraphNode node) {
+        Integer id = idOf.get(node);
+        if (id != null) return id;
+
+        int local = nextLocalId--;
+        idOf.put(node, local);
+        nodesById.put(local, node);
+        return local;
+    }
+
+    private void evict(List<Long> keys) {
+        if (keys.isEmpty()) return;
+
+        List<GraphNode> leaving = new ArrayList<>();
+        for (Long key : keys) {
+            LoadedTile tile = loaded.remove(key);
+            if (tile != null) leaving.addAll(tile.nodes());
+            edited.remove(key);
+        }
+
+        // Wires into tiles that stay leave the scene, those tiles keep them aside until this one returns
+        GraphModel model = connectionManager.getModel();
+        for (GraphNode node : leaving) {
+            int id = node.getModelId();
+            if (id < 0) continue;
+            for (int k = 0; k < model.outDegree(id); k++) {
+                keepAside(node, connectionManager.getNode(model.edgeTo(model.outEdge(id, k))), true);
+            }
+            for (int k = 0; k < model.inDegree(id); k++) {
+                keepAside(node, connectionManager.getNode(model.edgeFrom(model.inEdge(id, k))), false);
+            }
+        }
+
+        for (GraphNode node : leaving) {
+            Integer id = idOf.remove(node);
+            nodesById.remove(id, node);
+            if (node.getModelId() >= 0 && node.getHistoryKey() >= 0) historyKeys.put(id, node.getHistoryKey());
+        }
+
+        // Wires to nodes of tiles that stay are removed here and restored when this tile returns
+        streaming = true;
+        connectionManager.removeNodes(leaving);
+        streaming = false;
+        Set<GraphNode> leavingSet = new HashSet<>(leaving);
+        tileOf.keySet().removeAll(leavingSet);
+        content.getChildren().removeAll(leavingSet);
+    }
+
+    private void keepAside(GraphNode leaving, GraphNode other, boolean outgoing) {
+        Long otherTile = tileOf.get(other);
+        LoadedTile staying = otherTile == null ? null : loaded.get(otherTile);
+        if (staying == null) return;
+
+        int leavingId = idOf.get(leaving);
+        int otherId = idOf.get(other);
+        staying.offScene().add(outgoing ? edgeKey(leavingId, otherId) : edgeKey(otherId, leavingId));
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private static int edgeFrom(long edge) {
+        return (int) (edge >>> 32);
+    }
+
+    private static int edgeTo(long edge) {
+        return (int) edge;
+    }
+
+    private void markEdited(int modelId) {
+        if (streaming) return;
+        GraphNode node = connectionManager.getNode(modelId);
+        Long key = node == null ? null : tileOf.get(node);
+        if (key != null) edited.add(key);
+    }
+
+    // Moves leave no trace in the model's events, so positions are compared with the file
+    private boolean isEdited(long key) {
+        if (edited.contains(key)) return true;
+
+        LoadedTile tile = loaded.get(key);
+        for (int i = 0; i < tile.nodes().size(); i++) {
+            GraphNode node = tile.nodes().get(i);
+            if (node.getLayoutX() != tile.snapshot().x()[i] || node.getLayoutY() != tile.snapshot().y()[i]) {
+                edited.add(key);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,224 @@
+package com.javafx.javafx.lib.Rendering;
+
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.Routing.WireRoute;
+import com.javafx.javafx.lib.Routing.WireRouter;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point2D;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Line;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Transform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CanvasWireRenderer implements WireRenderer {
+
+    private static final double DIRTY_MARGIN = 4;
+
+    private final Pane viewport;
+    private final Pane content;
+    private final SpatialGrid<ConnectionRecord> wireIndex;
+    private final WireRouter router;
+    private final Canvas layer = new Canvas();
+
+    private Rect dirty;
+    private boolean fullRedraw = true;
+    private boolean scheduled = false;
+    private boolean simplified = false;
+    private Paint plainStroke = Color.LIGHTGRAY;
+
+    private final AnimationTimer redrawTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            redraw();
+        }
+    };
+
+    public CanvasWireRenderer(Pane viewport, Pane content, SpatialGrid<ConnectionRecord> wireIndex, WireRouter router) {
+        this.viewport = viewport;
+        this.content = content;
+        this.wireIndex = wireIndex;
+        this.router = router;
+
+        layer.setMouseTransparent(true);
+        layer.widthProperty().bind(viewport.widthProperty());
+        layer.heightProperty().bind(viewport.heightProperty());
+        // Drawn underneath the content pane so wires stay below the nodes
+        viewport.getChildren().addFirst(layer);
+
+        layer.widthProperty().addListener((obs, o, n) -> requestFullRedraw());
+        layer.heightProperty().addListener((obs, o, n) -> requestFullRedraw());
+        content.localToParentTransformProperty().addListener((obs, o, n) -> requestFullRedraw());
+    }
+
+    public void dispose() {
+        redrawTimer.stop();
+        viewport.getChildren().remove(layer);
+    }
+
+    @Override
+    public void wireAdded(ConnectionRecord c) {
+        markDirty(boundsOf(c));
+    }
+
+    @Override
+    public void wireRemoved(ConnectionRecord c) {
+        markDirty(boundsOf(c));
+    }
+
+    @Override
+    public void wireChanged(ConnectionRecord c, Rect oldBounds) {
+        markDirty(oldBounds);
+        markDirty(boundsOf(c));
+    }
+
+    private Rect boundsOf(ConnectionRecord c) {
+        WireRoute route = router.getRoute(c);
+        return route != null ? route.bounds() : WireRenderer.boundsOf(c);
+    }
+
+    @Override
+    public void setSimplified(boolean simplified) {
+        if (this.simplified == simplified) return;
+        this.simplified = simplified;
+        requestFullRedraw();
+    }
+
+    public void setPlainStroke(Paint plainStroke) {
+        this.plainStroke = plainStroke;
+        requestFullRedraw();
+    }
+
+    public void requestFullRedraw() {
+        fullRedraw = true;
+        schedule();
+    }
+
+    private void markDirty(Rect bounds) {
+        if (bounds == null || fullRedraw) return;
+        dirty = bounds.expand(DIRTY_MARGIN).union(dirty);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+        redrawTimer.start();
+    }
+
+    private void redraw() {
+        GraphicsContext gc = layer.getGraphicsContext2D();
+        Transform toViewport = content.getLocalToParentTransform();
+
+        Rect region;
+        if (fullRedraw) {
+            gc.setTransform(new Affine());
+            gc.clearRect(0, 0, layer.getWidth(), layer.getHeight());
+            region = visibleContentArea();
+        } else {
+            region = dirty;
+        }
+        fullRedraw = false;
+        dirty = null;
+        if (region == null) return;
+
+        gc.save();
+        gc.setTransform(new Affine(toViewport));
+
+        // Only the dirty region is cleared and repainted
+        gc.beginPath();
+        gc.rect(region.minX(), region.minY(), region.getWidth(), region.getHeight());
+        gc.closePath();
+        gc.clip();
+        gc.clearRect(region.minX(), region.minY(), region.getWidth(), region.getHeight());
+
+        if (simplified) {
+            drawSimplified(gc, region);
+        } else {
+            wireIndex.query(region, c -> drawWire(gc, c));
+        }
+        gc.restore();
+    }
+
+    private Rect visibleContentArea() {
+        Point2D topLeft = content.parentToLocal(0, 0);
+        Point2D bottomRight = content.parentToLocal(layer.getWidth(), layer.getHeight());
+        // Null when the transform is not invertible (scale of zero), nothing is visible then
+        if (topLeft == null || bottomRight == null) return null;
+        return Rect.of(topLeft.getX(), topLeft.getY(), bottomRight.getX(), bottomRight.getY());
+    }
+
+    // Zoomed out every wire is a straight stroke between its connectors, routes are skipped
+    private void drawSimplified(GraphicsContext gc, Rect region) {
+        List<ConnectionRecord> styled = new ArrayList<>();
+
+        // All plain wires go into a single path and a single stroke call
+        gc.setStroke(plainStroke);
+        gc.setLineWidth(1);
+        gc.beginPath();
+        wireIndex.query(region, c -> {
+            Line line = c.line();
+            if (!plainStroke.equals(line.getStroke())) {
+                styled.add(c);
+                return;
+            }
+            gc.moveTo(line.getStartX(), line.getStartY());
+            gc.lineTo(line.getEndX(), line.getEndY());
+        });
+        gc.stroke();
+
+        for (ConnectionRecord c : styled) {
+            Line line = c.line();
+            gc.setStroke(line.getStroke());
+            gc.setLineWidth(line.getStrokeWidth());
+            gc.strokeLine(line.getStartX(), line.getStartY(), line.getEndX(), line.getEndY());
+        }
+    }
+
+    private void drawWire(GraphicsContext gc, ConnectionRecord c) {
+        Line line = c.line();
+        gc.setStroke(line.getStroke());
+        gc.setLineWidth(line.getStrokeWidth());
+
+        WireRoute route = router.getRoute(c);
+        if (route == null || route.pointCount() == 2) {
+            gc.strokeLine(line.getStartX(), line.getStartY(), line.getEndX(), line.getEndY());
+            return;
+        }
+        gc.beginPath();
+        appendPath(gc, c);
+        gc.stroke();
+    }
+
+    private void appendPath(GraphicsContext gc, ConnectionRecord c) {
+        WireRoute route = router.getRoute(c);
+        if (route == null) {
+            Line line = c.line();
+            gc.moveTo(line.getStartX(), line.getStartY());
+            gc.lineTo(line.getEndX(), line.getEndY());
+            return;
+        }
+
+        double[] p = route.points();
+        gc.moveTo(p[0], p[1]);
+        if (route.curved()) {
+            for (int i = 2; i + 5 < p.length; i += 6) {
+                gc.bezierCurveTo(p[i], p[i + 1], p[i + 2], p[i + 3], p[i + 4], p[i + 5]);
+            }
+        } else {
+            for (int i = 2; i + 1 < p.length; i += 2) {
+                gc.lineTo(p[i], p[i + 1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.javafx.javafx.lib.Rendering;
+
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Line;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class LineWireRenderer implements WireRenderer {
+
+    private final Pane canvas;
+    private final SpatialGrid<ConnectionRecord> wireIndex;
+    private final Set<ConnectionRecord> attached = new HashSet<>();
+    private boolean simplified = false;
+
+    public LineWireRenderer(Pane canvas, SpatialGrid<ConnectionRecord> wireIndex) {
+        this.canvas = canvas;
+        this.wireIndex = wireIndex;
+    }
+
+    @Override
+    public void wireAdded(ConnectionRecord c) {
+        // Keep wires underneath the nodes
+        c.line().setSmooth(!simplified);
+        canvas.getChildren().addFirst(c.line());
+        attached.add(c);
+    }
+
+    @Override
+    public void wireRemoved(ConnectionRecord c) {
+        if (attached.remove(c)) {
+            canvas.getChildren().remove(c.line());
+        }
+    }
+
+    @Override
+    public void wiresRemoved(Collection<ConnectionRecord> removed) {
+        Set<Line> leaving = new HashSet<>();
+        for (ConnectionRecord c : removed) {
+            if (attached.remove(c)) leaving.add(c.line());
+        }
+        // One change notification instead of one linear search and notification per wire
+        if (!leaving.isEmpty()) canvas.getChildren().removeAll(leaving);
+    }
+
+    @Override
+    public void wireChanged(ConnectionRecord c, Rect oldBounds) {
+        // The Line node is the wire, so JavaFX already repaints it
+    }
+
+    @Override
+    public void setSimplified(boolean simplified) {
+        if (this.simplified == simplified) return;
+        this.simplified = simplified;
+
+        for (ConnectionRecord c : attached) {
+            c.line().setSmooth(!simplified);
+        }
+    }
+
+    @Override
+    public void viewportChanged(Rect visibleArea) {
+        Set<ConnectionRecord> visible = new HashSet<>(wireIndex.query(visibleArea));
+
+        Set<Line> leaving = new HashSet<>();
+        attached.removeIf(c -> {
+            if (visible.contains(c)) return false;
+            leaving.add(c.line());
+            return true;
+        });
+
+        List<Line> entering = new ArrayList<>();
+        for (ConnectionRecord c : visible) {
+            if (attached.add(c)) {
+                c.line().setSmooth(!simplified);
+                entering.add(c.line());
+            }
+        }
+
+        // One change notification each instead of one per wire
+        if (!leaving.isEmpty()) canvas.getChildren().removeAll(leaving);
+        if (!entering.isEmpty()) canvas.getChildren().addAll(0, entering);
+    }
+}
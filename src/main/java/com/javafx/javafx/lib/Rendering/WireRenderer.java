@@ -0,0 +1,37 @@
+package com.javafx.javafx.lib.Rendering;
+
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.Spatial.Rect;
+import javafx.scene.shape.Line;
+
+import java.util.Collection;
+
+public interface WireRenderer {
+
+    void wireAdded(ConnectionRecord c);
+
+    void wireRemoved(ConnectionRecord c);
+
+    // Bulk removal, e.g. when a large selection is deleted
+    default void wiresRemoved(Collection<ConnectionRecord> removed) {
+        for (ConnectionRecord c : removed) {
+            wireRemoved(c);
+        }
+    }
+
+    // Called after the wire's geometry or stroke changed; oldBounds is null for a fresh wire
+    void wireChanged(ConnectionRecord c, Rect oldBounds);
+
+    // Called by viewport virtualization with the visible area in canvas coordinates
+    default void viewportChanged(Rect visibleArea) {
+    }
+
+    // At low zoom wires are drawn as plain strokes without per-wire styling
+    default void setSimplified(boolean simplified) {
+    }
+
+    static Rect boundsOf(ConnectionRecord c) {
+        Line line = c.line();
+        return Rect.of(line.getStartX(), line.getStartY(), line.getEndX(), line.getEndY());
+    }
+}
@@ -0,0 +1,234 @@
+package com.javafx.javafx.lib.Routing;
+
+import com.javafx.javafx.lib.Spatial.Rect;
+
+import java.util.Arrays;
+
+// Shortest orthogonal path around rectangular obstacles. The candidate lines are the
+// wire's own coordinates plus the edges of every obstacle (widened by a margin), and
+// A* searches the grid they form, with a penalty per bend so routes stay simple.
+// Pure function of its inputs, so any number of wires can be routed in parallel
+public final class OrthogonalRouter {
+
+    // How far a wire leaves its connector before it may turn
+    static final double STUB = 20;
+    static final double MARGIN = 12;
+    private static final double BEND_PENALTY = 40;
+
+    private OrthogonalRouter() {
+    }
+
+    // Route that ignores obstacles; used while the real one is being computed
+    public static WireRoute simple(double startX, double startY, double endX, double endY) {
+        if (startY == endY && endX - STUB >= startX + STUB) return WireRoute.straight(startX, startY, endX, endY);
+        if (endX - STUB >= startX + STUB) {
+            double midX = (startX + endX) / 2;
+            return new WireRoute(new double[]{startX, startY, midX, startY, midX, endY, endX, endY}, false);
+        }
+        // Backwards wire: leave to the right, cross over halfway and come back in from the left
+        double midY = (startY + endY) / 2;
+        return new WireRoute(new double[]{
+                startX, startY,
+                startX + STUB, startY,
+                startX + STUB, midY,
+                endX - STUB, midY,
+                endX - STUB, endY,
+                endX, endY}, false);
+    }
+
+    public static WireRoute route(double startX, double startY, double endX, double endY, Rect[] obstacles) {
+        double fromX = startX + STUB, toX = endX - STUB;
+
+        // Obstacles covering a stub point (e.g. overlapping nodes) cannot be avoided, ignore them
+        Rect[] blocking = Arrays.stream(obstacles)
+                .map(r -> r.expand(MARGIN))
+                .filter(r -> !strictlyInside(r, fromX, startY) && !strictlyInside(r, toX, endY))
+                .toArray(Rect[]::new);
+        if (blocking.length == 0) return simple(startX, startY, endX, endY);
+
+        double[] xs = new double[2 + 2 * blocking.length];
+        double[] ys = new double[2 + 2 * blocking.length];
+        xs[0] = fromX;
+        xs[1] = toX;
+        ys[0] = startY;
+        ys[1] = endY;
+        for (int i = 0; i < blocking.length; i++) {
+            xs[2 + 2 * i] = blocking[i].minX();
+            xs[3 + 2 * i] = blocking[i].maxX();
+            ys[2 + 2 * i] = blocking[i].minY();
+            ys[3 + 2 * i] = blocking[i].maxY();
+        }
+        xs = sortedUnique(xs);
+        ys = sortedUnique(ys);
+
+        int[] path = search(xs, ys, blocking, Arrays.binarySearch(xs, fromX), Arrays.binarySearch(ys, startY),
+                Arrays.binarySearch(xs, toX), Arrays.binarySearch(ys, endY));
+        if (path == null) return simple(startX, startY, endX, endY);
+
+        double[] points = new double[2 * (path.length + 2)];
+        int n = 0;
+        n = addPoint(points, n, startX, startY);
+        for (int node : path) {
+            n = addPoint(points, n, xs[node % xs.length], ys[node / xs.length]);
+        }
+        n = addPoint(points, n, endX, endY);
+        return new WireRoute(Arrays.copyOf(points, n), false);
+    }
+
+    // A* over grid points; a state is a grid point plus whether it was entered horizontally
+    private static int[] search(double[] xs, double[] ys, Rect[] obstacles,
+                                int startColumn, int startRow, int endColumn, int endRow) {
+        int columns = xs.length;
+        int states = 2 * columns * ys.length;
+        double[] cost = new double[states];
+        int[] parent = new int[states];
+        boolean[] closed = new boolean[states];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+
+        Heap open = new Heap(states);
+        int start = 2 * (startRow * columns + startColumn);
+        cost[start] = 0;
+        parent[start] = -1;
+        open.push(start, heuristic(xs, ys, startColumn, startRow, endColumn, endRow));
+
+        int goal = endRow * columns + endColumn;
+        while (!open.isEmpty()) {
+            int state = open.pop();
+            if (closed[state]) continue;
+            closed[state] = true;
+
+            int node = state / 2;
+            boolean vertical = (state & 1) == 1;
+            if (node == goal) return reconstruct(parent, state);
+
+            int column = node % columns, row = node / columns;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextColumn = column + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+                int nextRow = row + (direction == 2 ? 1 : direction == 3 ? -1 : 0);
+                if (nextColumn < 0 || nextColumn >= columns || nextRow < 0 || nextRow >= ys.length) continue;
+                // Turning back into the connector the wire came from, or entering the target
+                // from the right, would run through the node itself
+                int next = nextRow * columns + nextColumn;
+                if (direction == 1 && (state == start || next == goal)) continue;
+
+                // Grid lines include every obstacle edge, so a step is either fully clear or blocked
+                double midX = (xs[column] + xs[nextColumn]) / 2;
+                double midY = (ys[row] + ys[nextRow]) / 2;
+                if (blocked(obstacles, midX, midY)) continue;
+
+                boolean nextVertical = direction >= 2;
+                double length = Math.abs(xs[nextColumn] - xs[column]) + Math.abs(ys[nextRow] - ys[row]);
+                double nextCost = cost[state] + length + (nextVertical != vertical ? BEND_PENALTY : 0);
+
+                int nextState = 2 * next + (nextVertical ? 1 : 0);
+                if (nextCost < cost[nextState]) {
+                    cost[nextState] = nextCost;
+                    parent[nextState] = state;
+                    open.push(nextState, nextCost + heuristic(xs, ys, nextColumn, nextRow, endColumn, endRow));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int[] reconstruct(int[] parent, int goalState) {
+        int length = 0;
+        for (int s = goalState; s >= 0; s = parent[s]) length++;
+        int[] nodes = new int[length];
+        for (int s = goalState, i = length - 1; s >= 0; s = parent[s], i--) nodes[i] = s / 2;
+        return nodes;
+    }
+
+    private static double heuristic(double[] xs, double[] ys, int column, int row, int endColumn, int endRow) {
+        return Math.abs(xs[endColumn] - xs[column]) + Math.abs(ys[endRow] - ys[row]);
+    }
+
+    private static boolean blocked(Rect[] obstacles, double x, double y) {
+        for (Rect r : obstacles) {
+            if (strictlyInside(r, x, y)) return true;
+        }
+        return false;
+    }
+
+    private static boolean strictlyInside(Rect r, double x, double y) {
+        return x > r.minX() && x < r.maxX() && y > r.minY() && y < r.maxY();
+    }
+
+    // Drops points that continue a straight run, so only corners remain
+    private static int addPoint(double[] points, int n, double x, double y) {
+        if (n >= 2 && points[n - 2] == x && points[n - 1] == y) return n;
+        if (n >= 4) {
+            double px = points[n - 4], py = points[n - 3], qx = points[n - 2], qy = points[n - 1];
+            if ((px == qx && qx == x) || (py == qy && qy == y)) {
+                points[n - 2] = x;
+                points[n - 1] = y;
+                return n;
+            }
+        }
+        points[n] = x;
+        points[n + 1] = y;
+        return n + 2;
+    }
+
+    private static double[] sortedUnique(double[] values) {
+        Arrays.sort(values);
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (n == 0 || values[i] != values[n - 1]) values[n++] = values[i];
+        }
+        return Arrays.copyOf(values, n);
+    }
+
+    // Binary min-heap of states; a state may be pushed again with a lower priority and
+    // stale copies are skipped when popped
+    private static final class Heap {
+        private int[] states;
+        private double[] priorities;
+        private int size = 0;
+
+        Heap(int capacity) {
+            states = new int[Math.max(16, capacity)];
+            priorities = new double[states.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int state, double priority) {
+            if (size == states.length) {
+                states = Arrays.copyOf(states, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int up = (i - 1) / 2;
+                if (priorities[up] <= priority) break;
+                states[i] = states[up];
+                priorities[i] = priorities[up];
+                i = up;
+            }
+            states[i] = state;
+            priorities[i] = priority;
+        }
+
+        int pop() {
+            int top = states[0];
+            int last = states[--size];
+            double lastPriority = priorities[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) child++;
+                if (priorities[child] >= lastPriority) break;
+                states[i] = states[child];
+                priorities[i] = priorities[child];
+                i = child;
+            }
+            states[i] = last;
+            priorities[i] = lastPriority;
+            return top;
+        }
+    }
+}
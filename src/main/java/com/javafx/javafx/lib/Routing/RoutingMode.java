@@ -0,0 +1,8 @@
+package com.javafx.javafx.lib.Routing;
+
+public enum RoutingMode {
+    STRAIGHT,
+    BEZIER,
+    // Horizontal and vertical segments that go around other nodes
+    ORTHOGONAL
+}
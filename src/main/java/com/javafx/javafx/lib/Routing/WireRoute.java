@@ -0,0 +1,86 @@
+package com.javafx.javafx.lib.Routing;
+
+import com.javafx.javafx.lib.Spatial.Rect;
+
+import static java.awt.geom.Line2D.linesIntersect;
+
+// Geometry of one wire as x,y pairs. A polyline visits every point; a curved route is a
+// start point followed by cubic Bezier segments of three points each (two controls, end)
+public record WireRoute(double[] points, boolean curved) {
+
+    private static final int CURVE_STEPS = 16;
+
+    public static WireRoute straight(double startX, double startY, double endX, double endY) {
+        return new WireRoute(new double[]{startX, startY, endX, endY}, false);
+    }
+
+    // Wires leave outputs to the right and enter inputs from the left, so the controls
+    // stretch horizontally; backwards wires get a wider loop
+    public static WireRoute bezier(double startX, double startY, double endX, double endY) {
+        double pull = Math.max(50, Math.abs(endX - startX) / 2);
+        return new WireRoute(new double[]{
+                startX, startY,
+                startX + pull, startY,
+                endX - pull, endY,
+                endX, endY}, true);
+    }
+
+    public int pointCount() {
+        return points.length / 2;
+    }
+
+    public double startX() {
+        return points[0];
+    }
+
+    public double startY() {
+        return points[1];
+    }
+
+    public double endX() {
+        return points[points.length - 2];
+    }
+
+    public double endY() {
+        return points[points.length - 1];
+    }
+
+    // A Bezier curve stays inside the hull of its controls, so this is safe for both kinds
+    public Rect bounds() {
+        double minX = points[0], maxX = points[0], minY = points[1], maxY = points[1];
+        for (int i = 2; i < points.length; i += 2) {
+            minX = Math.min(minX, points[i]);
+            maxX = Math.max(maxX, points[i]);
+            minY = Math.min(minY, points[i + 1]);
+            maxY = Math.max(maxY, points[i + 1]);
+        }
+        return new Rect(minX, minY, maxX, maxY);
+    }
+
+    public boolean intersects(double x1, double y1, double x2, double y2) {
+        if (!curved) {
+            for (int i = 0; i + 3 < points.length; i += 2) {
+                if (linesIntersect(x1, y1, x2, y2, points[i], points[i + 1], points[i + 2], points[i + 3])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Curves are tested as a short polyline along the curve
+        for (int s = 0; s + 7 < points.length; s += 6) {
+            double px = points[s], py = points[s + 1];
+            for (int step = 1; step <= CURVE_STEPS; step++) {
+                double t = (double) step / CURVE_STEPS;
+                double u = 1 - t;
+                double a = u * u * u, b = 3 * u * u * t, c = 3 * u * t * t, d = t * t * t;
+                double qx = a * points[s] + b * points[s + 2] + c * points[s + 4] + d * points[s + 6];
+                double qy = a * points[s + 1] + b * points[s + 3] + c * points[s + 5] + d * points[s + 7];
+                if (linesIntersect(x1, y1, x2, y2, px, py, qx, qy)) return true;
+                px = qx;
+                py = qy;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,199 @@
+package com.javafx.javafx.lib.Routing;
+
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+// Caches one route per wire. A route is only recomputed when an end of the wire moves,
+// or when a node moves across it in orthogonal mode. Orthogonal routes are searched in
+// parallel on a ForkJoinPool: until the result arrives the wire shows a quick route that
+// ignores obstacles, so dragging never waits for routing
+public class WireRouter {
+
+    // Beyond this many nodes around a wire the search gets slow, the quick route is kept
+    private static final int MAX_OBSTACLES = 32;
+    private static final double SEARCH_MARGIN = 100;
+
+    private final SpatialGrid<GraphNode> nodeIndex;
+    private final SpatialGrid<ConnectionRecord> wireIndex;
+    private final ForkJoinPool pool;
+    private RoutingMode mode = RoutingMode.STRAIGHT;
+    private Consumer<ConnectionRecord> onRouted = c -> {
+    };
+
+    private final Map<ConnectionRecord, Entry> routes = new IdentityHashMap<>();
+    private final Set<ConnectionRecord> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ConcurrentLinkedQueue<Result> finished = new ConcurrentLinkedQueue<>();
+    private volatile boolean batchRunning = false;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            collect();
+            dispatch();
+            if (pending.isEmpty() && !batchRunning && finished.isEmpty()) stop();
+        }
+    };
+
+    public WireRouter(SpatialGrid<GraphNode> nodeIndex, SpatialGrid<ConnectionRecord> wireIndex) {
+        this(nodeIndex, wireIndex, ForkJoinPool.commonPool());
+    }
+
+    public WireRouter(SpatialGrid<GraphNode> nodeIndex, SpatialGrid<ConnectionRecord> wireIndex, ForkJoinPool pool) {
+        this.nodeIndex = nodeIndex;
+        this.wireIndex = wireIndex;
+        this.pool = pool;
+    }
+
+    // Called on the FX thread whenever a background route replaces a wire's geometry
+    public void setOnRouted(Consumer<ConnectionRecord> onRouted) {
+        this.onRouted = onRouted;
+    }
+
+    public RoutingMode getMode() {
+        return mode;
+    }
+
+    // The caller re-routes every wire afterwards
+    public void setMode(RoutingMode mode) {
+        this.mode = mode;
+        routes.clear();
+        pending.clear();
+    }
+
+    public WireRoute getRoute(ConnectionRecord c) {
+        Entry entry = routes.get(c);
+        return entry == null ? null : entry.route;
+    }
+
+    // The route to show for the wire's current end points; cached ones are reused as is
+    public WireRoute route(ConnectionRecord c, double startX, double startY, double endX, double endY) {
+        Entry entry = routes.get(c);
+        if (entry != null && entry.route.startX() == startX && entry.route.startY() == startY
+                && entry.route.endX() == endX && entry.route.endY() == endY) {
+            return entry.route;
+        }
+
+        WireRoute route = switch (mode) {
+            case STRAIGHT -> WireRoute.straight(startX, startY, endX, endY);
+            case BEZIER -> WireRoute.bezier(startX, startY, endX, endY);
+            case ORTHOGONAL -> OrthogonalRouter.simple(startX, startY, endX, endY);
+        };
+        if (entry == null) {
+            entry = new Entry();
+            routes.put(c, entry);
+        }
+        entry.route = route;
+        entry.version++;
+        if (mode == RoutingMode.ORTHOGONAL) request(c);
+        return route;
+    }
+
+    public void forget(ConnectionRecord c) {
+        routes.remove(c);
+        pending.remove(c);
+    }
+
+    // A node moved from oldBounds to newBounds; wires it now blocks or no longer blocks are re-routed
+    public void obstacleMoved(Rect oldBounds, Rect newBounds) {
+        if (mode != RoutingMode.ORTHOGONAL) return;
+
+        Rect area = newBounds.expand(OrthogonalRouter.MARGIN).union(oldBounds);
+        wireIndex.query(area, c -> {
+            Entry entry = routes.get(c);
+            if (entry == null) return;
+            entry.version++;
+            request(c);
+        });
+    }
+
+    public void dispose() {
+        pulse.stop();
+        routes.clear();
+        pending.clear();
+    }
+
+    private void request(ConnectionRecord c) {
+        pending.add(c);
+        pulse.start();
+    }
+
+    // One batch at a time; whatever is requested meanwhile waits for the next pulse and
+    // repeated moves of the same wire collapse into one search
+    private void dispatch() {
+        if (batchRunning || pending.isEmpty()) return;
+
+        List<Request> batch = new ArrayList<>(pending.size());
+        for (ConnectionRecord c : pending) {
+            Entry entry = routes.get(c);
+            if (entry != null) batch.add(request(c, entry));
+        }
+        pending.clear();
+        if (batch.isEmpty()) return;
+
+        batchRunning = true;
+        pool.execute(() -> {
+            try {
+                batch.parallelStream().forEach(r -> finished.add(new Result(r.wire, r.version, r.route())));
+            } finally {
+                batchRunning = false;
+            }
+        });
+    }
+
+    // Obstacles are read here on the FX thread, the grid is not safe to query from workers
+    private Request request(ConnectionRecord c, Entry entry) {
+        WireRoute current = entry.route;
+        double startX = current.startX(), startY = current.startY();
+        double endX = current.endX(), endY = current.endY();
+
+        Rect area = Rect.of(startX, startY, endX, endY).expand(SEARCH_MARGIN);
+        List<GraphNode> nodes = nodeIndex.query(area);
+        Rect[] obstacles = null;
+        if (nodes.size() <= MAX_OBSTACLES) {
+            obstacles = new Rect[nodes.size()];
+            for (int i = 0; i < nodes.size(); i++) obstacles[i] = nodeIndex.getBounds(nodes.get(i));
+        }
+        return new Request(c, entry.version, startX, startY, endX, endY, obstacles);
+    }
+
+    private void collect() {
+        for (Result result; (result = finished.poll()) != null; ) {
+            Entry entry = routes.get(result.wire);
+            // Moved again or removed since the search started
+            if (entry == null || entry.version != result.version) continue;
+
+            entry.route = result.route;
+            onRouted.accept(result.wire);
+        }
+    }
+
+    private static final class Entry {
+        private WireRoute route;
+        private int version;
+    }
+
+    private record Request(ConnectionRecord wire, int version, double startX, double startY,
+                           double endX, double endY, Rect[] obstacles) {
+        WireRoute route() {
+            return obstacles == null
+                    ? OrthogonalRouter.simple(startX, startY, endX, endY)
+                    : OrthogonalRouter.route(startX, startY, endX, endY, obstacles);
+        }
+    }
+
+    private record Result(ConnectionRecord wire, int version, WireRoute route) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.javafx.javafx.lib.Scheduling;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Coalesces input-driven updates to at most one per key and pulse, so drag, pan and
+// zoom work follows the frame rate rather than the mouse's event rate
+public class UpdateScheduler {
+    private static final UpdateScheduler instance = new UpdateScheduler();
+
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+    private boolean scheduled = false;
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    public static UpdateScheduler getInstance() {
+        return instance;
+    }
+
+    // Replaces any update still pending under the same key
+    public void schedule(Object key, Runnable update) {
+        pending.put(key, update);
+        if (!scheduled) {
+            scheduled = true;
+            pulse.start();
+        }
+    }
+
+    public void cancel(Object key) {
+        pending.remove(key);
+    }
+
+    public boolean isPending(Object key) {
+        return pending.containsKey(key);
+    }
+
+    // Applies everything now, e.g. on mouse release so the final position is not a frame late
+    public void flush() {
+        pulse.stop();
+        scheduled = false;
+        if (pending.isEmpty()) return;
+
+        // Updates may schedule follow-ups, those run on the next pulse
+        List<Runnable> updates = new ArrayList<>(pending.values());
+        pending.clear();
+        for (Runnable update : updates) {
+            update.run();
+        }
+    }
+}
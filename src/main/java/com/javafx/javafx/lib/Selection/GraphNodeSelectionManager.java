@@ -1,41 +1,138 @@
 package com.javafx.javafx.lib.Selection;
 
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
 import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Model.GraphModel;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
+// Selection of one canvas, kept as a bitset over GraphModel node ids. Every operation
+// computes the changed ids once, restyles only those nodes and fires a single event
 public class GraphNodeSelectionManager {
-    private static final GraphNodeSelectionManager instance = new GraphNodeSelectionManager();
-    private final Set<GraphNode> selectedNodes = new HashSet<>();
+    private final ConnectionManager connectionManager;
+    private final BitSet selected = new BitSet();
+    private final List<SelectionListener> listeners = new ArrayList<>();
 
-    public static GraphNodeSelectionManager getInstance() {
-        return instance;
+    public GraphNodeSelectionManager(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
     }
 
     public void select(GraphNode node) {
-        clear();
-        selectedNodes.add(node);
-        node.setSelected(true);
+        BitSet next = new BitSet();
+        set(next, node, true);
+        apply(next);
     }
 
     public void selectMultiple(Collection<GraphNode> nodes) {
-        selectedNodes.addAll(nodes);
+        change(nodes, List.of());
+    }
+
+    public void deselectMultiple(Collection<GraphNode> nodes) {
+        change(List.of(), nodes);
+    }
+
+    public void deselect(GraphNode node) {
+        change(List.of(), List.of(node));
+    }
+
+    public void toggle(GraphNode node) {
+        BitSet next = (BitSet) selected.clone();
+        set(next, node, !isSelected(node));
+        apply(next);
+    }
+
+    // Deselections are applied before selections, both in the same event
+    public void change(Collection<GraphNode> toSelect, Collection<GraphNode> toDeselect) {
+        BitSet next = (BitSet) selected.clone();
+        for (GraphNode node : toDeselect) set(next, node, false);
+        for (GraphNode node : toSelect) set(next, node, true);
+        apply(next);
+    }
 
-        for (GraphNode node : nodes) {
-            node.setSelected(true);
+    // Adds every live node with an id in [fromId, toId]
+    public void selectRange(int fromId, int toId) {
+        GraphModel model = connectionManager.getModel();
+        BitSet next = (BitSet) selected.clone();
+        int end = Math.min(Math.max(fromId, toId), model.nodeCapacity() - 1);
+        for (int id = Math.max(0, Math.min(fromId, toId)); id <= end; id++) {
+            if (model.isNode(id)) next.set(id);
         }
+        apply(next);
+    }
+
+    public void selectAll() {
+        BitSet next = new BitSet(connectionManager.getModel().nodeCapacity());
+        connectionManager.getModel().forEachNode(next::set);
+        apply(next);
     }
 
     public void clear() {
-        for (GraphNode node : selectedNodes) {
-            node.setSelected(false);
+        if (selected.isEmpty()) return;
+        apply(new BitSet());
+    }
+
+    public boolean isSelected(GraphNode node) {
+        return node.getModelId() >= 0 && selected.get(node.getModelId());
+    }
+
+    public boolean isEmpty() {
+        return selected.isEmpty();
+    }
+
+    public int size() {
+        return selected.cardinality();
+    }
+
+    public BitSet getSelectedIds() {
+        return (BitSet) selected.clone();
+    }
+
+    public List<GraphNode> getSelectedNodes() {
+        List<GraphNode> nodes = new ArrayList<>(selected.cardinality());
+        for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+            nodes.add(connectionManager.getNode(id));
         }
-        selectedNodes.clear();
+        return nodes;
+    }
+
+    public void addListener(SelectionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SelectionListener listener) {
+        listeners.remove(listener);
     }
 
-    public Set<GraphNode> getSelectedNodes() {
-        return selectedNodes;
+    private static void set(BitSet bits, GraphNode node, boolean value) {
+        // Unregistered nodes have no id and cannot be selected
+        if (node.getModelId() >= 0) bits.set(node.getModelId(), value);
+    }
+
+    private void apply(BitSet next) {
+        BitSet added = (BitSet) next.clone();
+        added.andNot(selected);
+        BitSet removed = (BitSet) selected.clone();
+        removed.andNot(next);
+        if (added.isEmpty() && removed.isEmpty()) return;
+
+        selected.clear();
+        selected.or(next);
+
+        // Only nodes whose state actually changed are restyled
+        for (int id = removed.nextSetBit(0); id >= 0; id = removed.nextSetBit(id + 1)) {
+            GraphNode node = connectionManager.getNode(id);
+            if (node != null) node.setSelected(false);
+        }
+        for (int id = added.nextSetBit(0); id >= 0; id = added.nextSetBit(id + 1)) {
+            GraphNode node = connectionManager.getNode(id);
+            if (node != null) node.setSelected(true);
+        }
+
+        for (SelectionListener listener : listeners) {
+            listener.selectionChanged(added, removed);
+        }
     }
 }
@@ -1,122 +1,185 @@
 package com.javafx.javafx.lib.Selection;
 
-import com.javafx.javafx.lib.Connectors.ConnectorPoint;
 import com.javafx.javafx.lib.GraphNode.GraphNode;
-import javafx.geometry.Bounds;
+import com.javafx.javafx.lib.Metrics.EditorEvents;
+import com.javafx.javafx.lib.Metrics.EditorMetrics;
+import com.javafx.javafx.lib.Metrics.Operation;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Spatial.SpatialGrid;
 import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
-import javafx.scene.Node;
-import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class SelectionBox {
 
-    private final GraphNodeSelectionManager selectionManager = GraphNodeSelectionManager.getInstance();
+    private final GraphNodeSelectionManager selectionManager;
 
     private final Rectangle selectionBox = new Rectangle();
     private Point2D dragOffset;
     private boolean dragging = false;
     private final AnchorPane anchorPane;
+    private final SpatialGrid<GraphNode> nodeIndex;
+    private final EditorMetrics metrics = EditorMetrics.getInstance();
+    private final Set<GraphNode> previewed = new HashSet<>();
+    private Rect previewBox;
+    private boolean liveSelection = true;
 
-    // Transparent mouse catcher rectangle
-    private final Rectangle mouseCatcher = new Rectangle();
-
-    public SelectionBox(AnchorPane anchorPane) {
+    public SelectionBox(AnchorPane anchorPane, SpatialGrid<GraphNode> nodeIndex, GraphNodeSelectionManager selectionManager) {
         this.anchorPane = anchorPane;
+        this.selectionManager = selectionManager;
+        this.nodeIndex = nodeIndex;
         setupSelectionBox(anchorPane);
     }
 
-    private void setupSelectionBox(AnchorPane canvas) {
-        // Setup the transparent mouse catcher rectangle
-        mouseCatcher.setFill(Color.TRANSPARENT);
-        mouseCatcher.widthProperty().bind(canvas.widthProperty());
-        mouseCatcher.heightProperty().bind(canvas.heightProperty());
+    public void setLiveSelection(boolean liveSelection) {
+        this.liveSelection = liveSelection;
+    }
 
-        // Add mouseCatcher and selectionBox to the selectionLayer
-        canvas.getChildren().addAll(mouseCatcher, selectionBox);
+    private void setupSelectionBox(AnchorPane canvas) {
+        canvas.getChildren().add(selectionBox);
 
         selectionBox.setStroke(Color.LIGHTGOLDENRODYELLOW);
         selectionBox.setStrokeWidth(1);
         selectionBox.setFill(Color.LIGHTGOLDENRODYELLOW.deriveColor(0, 1.2, 1, 0.3));
         selectionBox.setVisible(false);
-
-        // Only handle if click NOT on GraphNode or ConnectorPoint
-        mouseCatcher.setOnMousePressed(this::onMousePress);
-        mouseCatcher.setOnMouseDragged(this::onMouseDrag);
-        mouseCatcher.setOnMouseReleased(this::onMouseRelease);
+        // Never in the way of picking, the canvas input dispatcher drives the box
+        selectionBox.setMouseTransparent(true);
     }
 
-    private void onMousePress(MouseEvent e) {
-        if (!e.isPrimaryButtonDown()) return;
-
-        Node target = e.getPickResult().getIntersectedNode();
-        while (target != null) {
-            if (target instanceof GraphNode || target instanceof ConnectorPoint) {
-                // Don't start box selection if clicked on node/connector
-                return;
-            }
-            target = target.getParent();
-        }
-
+    // Points are in the anchor pane's coordinates
+    public void begin(double x, double y) {
         selectionManager.clear();
-        dragOffset = new Point2D(e.getX(), e.getY());
+        previewed.clear();
+        previewBox = null;
+        dragOffset = new Point2D(x, y);
         selectionBox.setX(dragOffset.getX());
         selectionBox.setY(dragOffset.getY());
         selectionBox.setWidth(0);
         selectionBox.setHeight(0);
         selectionBox.setVisible(true);
         dragging = true;
-        e.consume();
     }
 
-    private void onMouseDrag(MouseEvent e) {
+    public void update(double x, double y) {
         if (!dragging || dragOffset == null) return;
 
-        if (dragOffset.getX() < 10 || dragOffset.getY() < 10) return;
-
         anchorPane.setCursor(Cursor.HAND);
 
-        double x = Math.min(e.getX(), dragOffset.getX());
-        double y = Math.min(e.getY(), dragOffset.getY());
-        double width = Math.abs(e.getX() - dragOffset.getX());
-        double height = Math.abs(e.getY() - dragOffset.getY());
+        selectionBox.setX(Math.min(x, dragOffset.getX()));
+        selectionBox.setY(Math.min(y, dragOffset.getY()));
+        selectionBox.setWidth(Math.abs(x - dragOffset.getX()));
+        selectionBox.setHeight(Math.abs(y - dragOffset.getY()));
+
+        if (liveSelection) {
+            updatePreview();
+        }
+    }
+
+    private void updatePreview() {
+        long start = metrics.start();
+        EditorEvents.MarqueeSelection event = new EditorEvents.MarqueeSelection();
+        event.begin();
 
-        selectionBox.setX(x);
-        selectionBox.setY(y);
-        selectionBox.setWidth(width);
-        selectionBox.setHeight(height);
-        e.consume();
+        Rect box = currentBox();
+        List<GraphNode> entering = new ArrayList<>();
+        List<GraphNode> leaving = new ArrayList<>();
+
+        if (previewBox == null || !previewBox.intersects(box)) {
+            Set<GraphNode> inside = new HashSet<>(nodeIndex.query(box));
+            for (GraphNode node : previewed) {
+                if (!inside.contains(node)) leaving.add(node);
+            }
+            for (GraphNode node : inside) {
+                if (!previewed.contains(node)) entering.add(node);
+            }
+            previewed.removeAll(leaving);
+            previewed.addAll(entering);
+        } else {
+            // Only nodes touching the area between the old and the new box can change sides,
+            // everything in the overlap keeps its state
+            for (Rect strip : strips(previewBox, box)) {
+                nodeIndex.query(strip, node -> {
+                    if (nodeIndex.getBounds(node).intersects(box)) {
+                        if (previewed.add(node)) entering.add(node);
+                    } else if (previewed.remove(node)) {
+                        leaving.add(node);
+                    }
+                });
+            }
+        }
+        previewBox = box;
+
+        selectionManager.change(entering, leaving);
+
+        event.nodes = previewed.size();
+        event.changed = entering.size() + leaving.size();
+        event.commit();
+        metrics.record(Operation.BOX_SELECTION, start);
     }
 
-    private void onMouseRelease(MouseEvent e) {
+    // The parts of the bounding box of both rectangles outside their overlap
+    private static List<Rect> strips(Rect a, Rect b) {
+        Rect all = a.union(b);
+        double minX = Math.max(a.minX(), b.minX()), maxX = Math.min(a.maxX(), b.maxX());
+        double minY = Math.max(a.minY(), b.minY()), maxY = Math.min(a.maxY(), b.maxY());
+
+        List<Rect> strips = new ArrayList<>(4);
+        if (all.minX() < minX) strips.add(new Rect(all.minX(), all.minY(), minX, all.maxY()));
+        if (all.maxX() > maxX) strips.add(new Rect(maxX, all.minY(), all.maxX(), all.maxY()));
+        if (all.minY() < minY) strips.add(new Rect(minX, all.minY(), maxX, minY));
+        if (all.maxY() > maxY) strips.add(new Rect(minX, maxY, maxX, all.maxY()));
+        return strips;
+    }
+
+    private Rect currentBox() {
+        return new Rect(selectionBox.getX(), selectionBox.getY(),
+                selectionBox.getX() + selectionBox.getWidth(), selectionBox.getY() + selectionBox.getHeight());
+    }
+
+    private List<GraphNode> nodesInBox() {
+        return nodeIndex.query(currentBox());
+    }
+
+    public void finish() {
         if (!dragging) return;
 
         if (selectionBox.getWidth() < 5 || selectionBox.getHeight() < 5) {
+            selectionManager.deselectMultiple(previewed);
             cancelSelectionBox();
             return;
         }
 
-        Bounds boxBounds = selectionBox.getBoundsInParent();
+        if (liveSelection) {
+            updatePreview();
+        } else {
+            long start = metrics.start();
+            EditorEvents.MarqueeSelection event = new EditorEvents.MarqueeSelection();
+            event.begin();
 
-        List<GraphNode> selected = anchorPane.getChildren().stream()
-                .filter(n -> n instanceof GraphNode)
-                .map(n -> (GraphNode) n)
-                .filter(node -> node.getBoundsInParent().intersects(boxBounds))
-                .toList();
+            List<GraphNode> inside = nodesInBox();
+            selectionManager.selectMultiple(inside);
 
-        selectionManager.selectMultiple(selected);
+            event.nodes = inside.size();
+            event.changed = inside.size();
+            event.commit();
+            metrics.record(Operation.BOX_SELECTION, start);
+        }
 
         anchorPane.setCursor(Cursor.DEFAULT);
         cancelSelectionBox();
-        e.consume();
     }
 
     public void cancelSelectionBox() {
         dragging = false;
+        previewed.clear();
+        previewBox = null;
         selectionBox.setVisible(false);
         dragOffset = null;
     }
@@ -0,0 +1,10 @@
+package com.javafx.javafx.lib.Selection;
+
+import java.util.BitSet;
+
+@FunctionalInterface
+public interface SelectionListener {
+
+    // Called once per selection operation with the node ids that changed; the sets must not be kept
+    void selectionChanged(BitSet added, BitSet removed);
+}
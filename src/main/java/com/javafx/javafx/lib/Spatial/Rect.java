@@ -0,0 +1,34 @@
+package com.javafx.javafx.lib.Spatial;
+
+public record Rect(double minX, double minY, double maxX, double maxY) {
+
+    public static Rect of(double x1, double y1, double x2, double y2) {
+        return new Rect(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+    }
+
+    public double getWidth() {
+        return maxX - minX;
+    }
+
+    public double getHeight() {
+        return maxY - minY;
+    }
+
+    public boolean contains(double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public boolean intersects(Rect other) {
+        return other.maxX >= minX && other.minX <= maxX && other.maxY >= minY && other.minY <= maxY;
+    }
+
+    public Rect expand(double margin) {
+        return new Rect(minX - margin, minY - margin, maxX + margin, maxY + margin);
+    }
+
+    public Rect union(Rect other) {
+        if (other == null) return this;
+        return new Rect(Math.min(minX, other.minX), Math.min(minY, other.minY),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY));
+    }
+}
@@ -0,0 +1,140 @@
+package com.javafx.javafx.lib.Spatial;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class SpatialGrid<T> {
+
+    private final double cellSize;
+    private final Map<Long, List<T>> cells = new HashMap<>();
+    private final Map<T, Rect> entries = new IdentityHashMap<>();
+
+    public SpatialGrid(double cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive");
+        this.cellSize = cellSize;
+    }
+
+    public void put(T item, Rect bounds) {
+        Rect old = entries.put(item, bounds);
+        if (old != null) {
+            if (sameCells(old, bounds)) return;
+            removeFromCells(item, old);
+        }
+
+        int minCol = cell(bounds.minX()), maxCol = cell(bounds.maxX());
+        int minRow = cell(bounds.minY()), maxRow = cell(bounds.maxY());
+        for (int col = minCol; col <= maxCol; col++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                cells.computeIfAbsent(key(col, row), k -> new ArrayList<>(4)).add(item);
+            }
+        }
+    }
+
+    public void remove(T item) {
+        Rect old = entries.remove(item);
+        if (old != null) {
+            removeFromCells(item, old);
+        }
+    }
+
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    public Rect getBounds(T item) {
+        return entries.get(item);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void forEach(Consumer<T> action) {
+        entries.keySet().forEach(action);
+    }
+
+    public List<T> queryPoint(double x, double y) {
+        List<T> result = new ArrayList<>();
+        List<T> bucket = cells.get(key(cell(x), cell(y)));
+        if (bucket == null) return result;
+
+        for (T item : bucket) {
+            if (entries.get(item).contains(x, y)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    public List<T> query(Rect area) {
+        List<T> result = new ArrayList<>();
+        query(area, result::add);
+        return result;
+    }
+
+    public void query(Rect area, Consumer<T> action) {
+        int minCol = cell(area.minX()), maxCol = cell(area.maxX());
+        int minRow = cell(area.minY()), maxRow = cell(area.maxY());
+        boolean singleCell = minCol == maxCol && minRow == maxRow;
+        Map<T, Boolean> seen = singleCell ? null : new IdentityHashMap<>();
+
+        for (int col = minCol; col <= maxCol; col++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                List<T> bucket = cells.get(key(col, row));
+                if (bucket == null) continue;
+
+                for (T item : bucket) {
+                    if (!entries.get(item).intersects(area)) continue;
+                    // Items spanning several cells are reported once
+                    if (seen != null && seen.put(item, Boolean.TRUE) != null) continue;
+                    action.accept(item);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        cells.clear();
+        entries.clear();
+    }
+
+    private void removeFromCells(T item, Rect bounds) {
+        int minCol = cell(bounds.minX()), maxCol = cell(bounds.maxX());
+        int minRow = cell(bounds.minY()), maxRow = cell(bounds.maxY());
+        for (int col = minCol; col <= maxCol; col++) {
+            for (int row = minRow; row <= maxRow; row++) {
+                long key = key(col, row);
+                List<T> bucket = cells.get(key);
+                if (bucket == null) continue;
+
+                for (int i = 0; i < bucket.size(); i++) {
+                    if (bucket.get(i) == item) {
+                        // Order inside a bucket is irrelevant, so swap-remove
+                        int last = bucket.size() - 1;
+                        bucket.set(i, bucket.get(last));
+                        bucket.remove(last);
+                        break;
+                    }
+                }
+                if (bucket.isEmpty()) cells.remove(key);
+            }
+        }
+    }
+
+    private boolean sameCells(Rect a, Rect b) {
+        return cell(a.minX()) == cell(b.minX()) && cell(a.maxX()) == cell(b.maxX())
+                && cell(a.minY()) == cell(b.minY()) && cell(a.maxY()) == cell(b.maxY());
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int col, int row) {
+        return ((long) col << 32) | (row & 0xffffffffL);
+    }
+}
@@ -0,0 +1,39 @@
+package com.javafx.javafx.lib.Viewport;
+
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Labels are by far the heaviest part of a node, a control with its own skin and text
+// node, so the virtualizer reuses the ones of nodes that scroll out for nodes that scroll in
+public class LabelPool {
+
+    private final Deque<Label> free = new ArrayDeque<>();
+    private final int maxSize;
+
+    public LabelPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Label acquire(String text) {
+        Label label = free.poll();
+        if (label == null) {
+            label = new Label();
+            label.setTextFill(Color.WHITE);
+        }
+        label.setText(text);
+        return label;
+    }
+
+    public void release(Label label) {
+        if (free.size() < maxSize) {
+            free.push(label);
+        }
+    }
+
+    public int size() {
+        return free.size();
+    }
+}
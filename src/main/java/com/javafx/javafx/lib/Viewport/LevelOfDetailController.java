@@ -0,0 +1,31 @@
+package com.javafx.javafx.lib.Viewport;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.DetailLevel;
+import javafx.scene.layout.Pane;
+
+public class LevelOfDetailController {
+
+    private final ConnectionManager connectionManager;
+    private DetailLevel level;
+
+    public LevelOfDetailController(Pane content, ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+        this.level = DetailLevel.forScale(content.getScaleX());
+
+        content.scaleXProperty().addListener((obs, oldScale, newScale) -> apply(DetailLevel.forScale(newScale.doubleValue())));
+    }
+
+    public DetailLevel getLevel() {
+        return level;
+    }
+
+    private void apply(DetailLevel newLevel) {
+        // Only tier changes touch the nodes, zooming within a tier costs nothing
+        if (newLevel == level) return;
+        level = newLevel;
+
+        connectionManager.getNodeIndex().forEach(node -> node.setDetailLevel(newLevel));
+        connectionManager.getWireRenderer().setSimplified(newLevel == DetailLevel.MINIMAL);
+    }
+}
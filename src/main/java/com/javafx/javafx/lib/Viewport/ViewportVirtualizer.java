@@ -0,0 +1,133 @@
+package com.javafx.javafx.lib.Viewport;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Spatial.Rect;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps only the nodes around the viewport in the scene graph. Nodes further out are
+// detached, so CSS, layout, picking and rendering skip them, and hand their label back to
+// a pool. The GraphNode objects themselves are not recycled: they are the identity wires,
+// the selection and the history refer to, and wire ends are still computed from them
+public class ViewportVirtualizer {
+
+    // Margin in screen pixels, so nodes are attached slightly before they scroll in
+    private static final double MARGIN = 200;
+
+    private final Pane viewport;
+    private final Pane content;
+    private final ConnectionManager connectionManager;
+    private final LabelPool labelPool = new LabelPool(4096);
+    private boolean enabled = false;
+    private boolean scheduled = false;
+
+    private final AnimationTimer refreshTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            scheduled = false;
+            refresh();
+        }
+    };
+
+    public ViewportVirtualizer(Pane viewport, Pane content, ConnectionManager connectionManager) {
+        this.viewport = viewport;
+        this.content = content;
+        this.connectionManager = connectionManager;
+
+        viewport.widthProperty().addListener((obs, o, n) -> requestRefresh());
+        viewport.heightProperty().addListener((obs, o, n) -> requestRefresh());
+        content.localToParentTransformProperty().addListener((obs, o, n) -> requestRefresh());
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+
+        if (enabled) {
+            requestRefresh();
+        } else {
+            attachAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void requestRefresh() {
+        if (!enabled || scheduled) return;
+        scheduled = true;
+        refreshTimer.start();
+    }
+
+    public Rect getVisibleArea() {
+        Point2D topLeft = content.parentToLocal(-MARGIN, -MARGIN);
+        Point2D bottomRight = content.parentToLocal(viewport.getWidth() + MARGIN, viewport.getHeight() + MARGIN);
+        if (topLeft == null || bottomRight == null) return null;
+        return Rect.of(topLeft.getX(), topLeft.getY(), bottomRight.getX(), bottomRight.getY());
+    }
+
+    private void refresh() {
+        if (!enabled) return;
+
+        Rect visibleArea = getVisibleArea();
+        if (visibleArea == null) return;
+
+        Set<GraphNode> visible = new HashSet<>(connectionManager.getNodeIndex().query(visibleArea));
+
+        Set<Node> leaving = new HashSet<>();
+        for (Node child : content.getChildren()) {
+            if (child instanceof GraphNode graphNode && !visible.contains(graphNode)) {
+                leaving.add(graphNode);
+            }
+        }
+
+        List<Node> entering = new ArrayList<>();
+        for (GraphNode graphNode : visible) {
+            if (graphNode.getParent() != content) {
+                graphNode.bindLabel(labelPool);
+                entering.add(graphNode);
+            }
+        }
+
+        if (!leaving.isEmpty()) {
+            content.getChildren().removeAll(leaving);
+            for (Node node : leaving) {
+                ((GraphNode) node).releaseLabel(labelPool);
+            }
+        }
+        if (!entering.isEmpty()) {
+            content.getChildren().addAll(entering);
+        }
+
+        connectionManager.getWireRenderer().viewportChanged(visibleArea);
+    }
+
+    private void attachAll() {
+        List<Node> entering = new ArrayList<>();
+        connectionManager.getNodeIndex().forEach(graphNode -> {
+            if (graphNode.getParent() != content) {
+                graphNode.bindLabel(labelPool);
+                entering.add(graphNode);
+            }
+        });
+        content.getChildren().addAll(entering);
+
+        Rect everything = null;
+        for (var c : connectionManager.getConnections().getAll()) {
+            everything = connectionManager.getWireIndex().getBounds(c).union(everything);
+        }
+        if (everything != null) {
+            connectionManager.getWireRenderer().viewportChanged(everything);
+        }
+    }
+}
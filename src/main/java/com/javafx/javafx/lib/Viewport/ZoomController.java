@@ -0,0 +1,74 @@
+package com.javafx.javafx.lib.Viewport;
+
+import com.javafx.javafx.lib.Metrics.EditorEvents;
+import com.javafx.javafx.lib.Scheduling.UpdateScheduler;
+import javafx.geometry.Point2D;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+
+// Zooms the content about the mouse as the wheel turns. Scroll steps accumulate and are
+// applied once per pulse, so a fast wheel does not rescale the scene for every notch
+public class ZoomController {
+
+    private static final double ZOOM_FACTOR = 1.05;
+
+    private final Pane content;
+    private final double minScale;
+    private final double maxScale;
+    private final UpdateScheduler scheduler = UpdateScheduler.getInstance();
+
+    private double pendingZoom = 1;
+    private double pivotX, pivotY;
+
+    public ZoomController(Pane canvas, Pane content, double minScale, double maxScale) {
+        this.content = content;
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+
+        canvas.setOnScroll(this::onScroll);
+    }
+
+    private void onScroll(ScrollEvent event) {
+        double delta = event.getDeltaY();
+
+        pendingZoom = (delta > 0) ? pendingZoom * ZOOM_FACTOR : pendingZoom / ZOOM_FACTOR;
+        pivotX = event.getSceneX();
+        pivotY = event.getSceneY();
+        scheduler.schedule(this, this::applyZoom);
+
+        event.consume();
+    }
+
+    private void applyZoom() {
+        double oldScale = content.getScaleX();
+        double scale = Math.min(Math.max(oldScale * pendingZoom, minScale), maxScale);
+        pendingZoom = 1;
+
+        if (scale == oldScale) return; // no change
+
+        EditorEvents.Zoom event = new EditorEvents.Zoom();
+        event.begin();
+
+        // Get the mouse position in the content's coordinates
+        Point2D mouseSceneCoords = new Point2D(pivotX, pivotY);
+        Point2D mouseInContent = content.sceneToLocal(mouseSceneCoords);
+
+        // Apply scale
+        content.setScaleX(scale);
+        content.setScaleY(scale);
+
+        // After scaling, convert back to scene coords to see where content moved
+        Point2D newMouseSceneCoords = content.localToScene(mouseInContent);
+
+        // Compute the delta in scene space and apply it to translation
+        double dx = mouseSceneCoords.getX() - newMouseSceneCoords.getX();
+        double dy = mouseSceneCoords.getY() - newMouseSceneCoords.getY();
+
+        content.setTranslateX(content.getTranslateX() + dx);
+        content.setTranslateY(content.getTranslateY() + dy);
+
+        event.nodes = content.getChildren().size();
+        event.scale = scale;
+        event.commit();
+    }
+}
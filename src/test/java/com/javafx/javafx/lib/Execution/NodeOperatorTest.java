@@ -0,0 +1,39 @@
+package com.javafx.javafx.lib.Execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NodeOperatorTest {
+
+    @Test
+    void passThroughForwardsASingleInput() throws Exception {
+        assertEquals("a", NodeOperator.PASS_THROUGH.apply(List.of("a")));
+        assertNull(NodeOperator.PASS_THROUGH.apply(Collections.singletonList(null)));
+    }
+
+    @Test
+    void passThroughKeepsNullInputs() throws Exception {
+        // An upstream operator that returned null, next to one that returned a value
+        Object result = NodeOperator.PASS_THROUGH.apply(Arrays.asList(null, "b", null));
+
+        assertEquals(Arrays.asList(null, "b", null), result);
+        assertThrows(UnsupportedOperationException.class, () -> ((List<?>) result).add("c"));
+    }
+
+    @Test
+    void passThroughCopiesItsInputs() throws Exception {
+        List<Object> inputs = Arrays.asList("a", "b");
+        Object result = NodeOperator.PASS_THROUGH.apply(inputs);
+
+        inputs.set(0, "changed");
+
+        assertEquals(List.of("a", "b"), result);
+    }
+}
@@ -0,0 +1,146 @@
+package com.javafx.javafx.lib.History;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.perf.HeadlessEditor;
+import com.javafx.javafx.perf.SyntheticGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.javafx.javafx.perf.HeadlessEditor.onFx;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives the journal of a headless editor holding A -> B -> C
+class EditJournalTest {
+
+    private HeadlessEditor editor;
+    private EditJournal journal;
+    private ConnectionManager connections;
+
+    @BeforeEach
+    void openEditor() {
+        editor = HeadlessEditor.open(new SyntheticGraph("chain",
+                new double[]{0, 200, 400}, new double[]{0, 0, 0}, new int[]{0, 1}, new int[]{1, 2}));
+        journal = editor.journal;
+        connections = editor.connectionManager;
+    }
+
+    @AfterEach
+    void closeEditor() {
+        editor.close();
+    }
+
+    @Test
+    void movesAreUndoneAndRedone() {
+        onFx(() -> {
+            GraphNode b = editor.nodes.get(1);
+            b.setLayoutX(250);
+            b.setLayoutY(30);
+            journal.recordMoved(List.of(b), 50, 30);
+
+            journal.undo();
+            assertEquals(200, b.getLayoutX());
+            assertEquals(0, b.getLayoutY());
+            assertTrue(journal.canRedo());
+
+            journal.redo();
+            assertEquals(250, b.getLayoutX());
+            assertEquals(30, b.getLayoutY());
+            assertFalse(journal.canRedo());
+            return null;
+        });
+    }
+
+    @Test
+    void undoingADeleteBringsBackTheNodeAndItsWires() {
+        onFx(() -> {
+            GraphNode b = editor.nodes.get(1);
+            journal.recordDeleted(List.of(b));
+            connections.removeNodes(List.of(b));
+            editor.contentGroup.getChildren().remove(b);
+            assertEquals(2, connections.getModel().nodeCount());
+            assertEquals(0, connections.getModel().edgeCount());
+
+            journal.undo();
+
+            Map<String, GraphNode> byTitle = nodesByTitle();
+            GraphNode restored = byTitle.get("Node 1");
+            assertEquals(200, restored.getLayoutX());
+            assertTrue(connections.connectionExists(byTitle.get("Node 0"), restored));
+            assertTrue(connections.connectionExists(restored, byTitle.get("Node 2")));
+
+            // The restored node answers to the old history key
+            journal.redo();
+            assertFalse(nodesByTitle().containsKey("Node 1"));
+            assertEquals(0, connections.getModel().edgeCount());
+            return null;
+        });
+    }
+
+    @Test
+    void wiresAreUndoneAndRedone() {
+        onFx(() -> {
+            GraphNode a = editor.nodes.get(0), c = editor.nodes.get(2);
+            connections.connect(a, c);
+            journal.recordConnected(a, c);
+
+            journal.undo();
+            assertFalse(connections.connectionExists(a, c));
+
+            journal.redo();
+            assertTrue(connections.connectionExists(a, c));
+            return null;
+        });
+    }
+
+    @Test
+    void oldestEntriesAreDroppedPastTheCap() {
+        onFx(() -> {
+            List<GraphNode> nodes = editor.nodes;
+            for (int i = 0; i < 100; i++) {
+                for (GraphNode node : nodes) node.setLayoutX(node.getLayoutX() + 1);
+                journal.recordMoved(nodes, 1, 0);
+            }
+            long perEntry = journal.getUsedBytes() / journal.size();
+
+            journal.setMaxBytes(perEntry * 10);
+
+            assertEquals(10, journal.size());
+            assertTrue(journal.getUsedBytes() <= perEntry * 10);
+            for (int i = 0; i < 10; i++) journal.undo();
+            assertFalse(journal.canUndo());
+            // Only the last ten moves were undone
+            assertEquals(90, nodes.get(0).getLayoutX());
+            return null;
+        });
+    }
+
+    @Test
+    void recordingAfterUndoDropsTheRedoEntries() {
+        onFx(() -> {
+            GraphNode a = editor.nodes.get(0);
+            journal.recordMoved(List.of(a), 10, 0);
+            journal.recordMoved(List.of(a), 10, 0);
+            journal.undo();
+
+            journal.recordMoved(List.of(a), 5, 0);
+
+            assertFalse(journal.canRedo());
+            assertEquals(2, journal.size());
+            return null;
+        });
+    }
+
+    private Map<String, GraphNode> nodesByTitle() {
+        return editor.contentGroup.getChildren().stream()
+                .filter(GraphNode.class::isInstance).map(GraphNode.class::cast)
+                .collect(Collectors.toMap(GraphNode::getTitle, node -> node));
+    }
+}
@@ -0,0 +1,52 @@
+package com.javafx.javafx.lib.Metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsStayWithinSixPercent() {
+        for (long nanos = 1; nanos > 0 && nanos < Long.MAX_VALUE / 2; nanos = nanos * 3 / 2 + 1) {
+            long middle = LatencyHistogram.middleOf(LatencyHistogram.bucketOf(nanos));
+            assertTrue(Math.abs(middle - nanos) <= 0.0625 * nanos, nanos + " reported as " + middle);
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        for (int nanos = 0; nanos < 16; nanos++) {
+            assertEquals(nanos, LatencyHistogram.middleOf(LatencyHistogram.bucketOf(nanos)));
+        }
+    }
+
+    @Test
+    void percentilesFollowTheSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1..1000 microseconds
+        for (int i = 1; i <= 1000; i++) histogram.record(i * 1000L);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_500, snapshot.meanNanos(), 1e-6);
+        assertEquals(500_000, snapshot.p50Nanos(), 0.0625 * 500_000);
+        assertEquals(900_000, snapshot.p90Nanos(), 0.0625 * 900_000);
+        assertEquals(990_000, snapshot.p99Nanos(), 0.0625 * 990_000);
+        assertEquals(1_000_000, snapshot.maxNanos());
+    }
+
+    @Test
+    void resetStartsOver() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5_000);
+        histogram.record(-3);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+}
@@ -0,0 +1,127 @@
+package com.javafx.javafx.lib.Model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphModelTest {
+
+    private final GraphModel model = new GraphModel();
+
+    private int node() {
+        return model.addNode(0, 0, 10, 10);
+    }
+
+    @Test
+    void removedIdsAreReused() {
+        int a = node(), b = node();
+        model.removeNode(a);
+
+        assertFalse(model.isNode(a));
+        assertEquals(1, model.nodeCount());
+        assertEquals(a, node());
+        assertTrue(model.isNode(b));
+        assertEquals(2, model.nodeCapacity());
+    }
+
+    @Test
+    void duplicateEdgesAreRefused() {
+        int a = node(), b = node();
+        int ab = model.connect(a, b);
+
+        assertEquals(-1, model.connect(a, b));
+        assertEquals(ab, model.findEdge(a, b));
+        assertEquals(-1, model.findEdge(b, a));
+        assertEquals(1, model.edgeCount());
+    }
+
+    @Test
+    void removingANodeRemovesItsEdgesFirst() {
+        int a = node(), b = node(), c = node();
+        model.connect(a, b);
+        model.connect(b, c);
+        int ac = model.connect(a, c);
+        List<String> events = new ArrayList<>();
+        model.addListener(new GraphModel.Listener() {
+            @Override
+            public void nodeRemoved(int id) {
+                events.add("node " + id);
+            }
+
+            @Override
+            public void edgeRemoved(int edge, int from, int to) {
+                events.add("edge " + from + "->" + to);
+            }
+        });
+
+        model.removeNode(b);
+
+        assertEquals(List.of("edge " + b + "->" + c, "edge " + a + "->" + b, "node " + b), events);
+        assertEquals(1, model.edgeCount());
+        assertEquals(1, model.outDegree(a));
+        assertEquals(ac, model.outEdge(a, 0));
+        assertEquals(1, model.inDegree(c));
+    }
+
+    @Test
+    void edgeLookupSurvivesManyDeletes() {
+        // Enough churn to fill the edge table's probe runs and shift them back on delete
+        Random random = new Random(42);
+        int n = 200;
+        for (int i = 0; i < n; i++) node();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            int from = random.nextInt(n), to = random.nextInt(n);
+            long key = (long) from * n + to;
+            Integer edge = expected.get(key);
+            if (edge == null) {
+                expected.put(key, model.connect(from, to));
+            } else {
+                model.disconnect(edge);
+                expected.remove(key);
+            }
+        }
+
+        assertEquals(expected.size(), model.edgeCount());
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                Integer edge = expected.get((long) from * n + to);
+                assertEquals(edge == null ? -1 : edge, model.findEdge(from, to));
+            }
+        }
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        int a = node(), b = node();
+        model.connect(a, b);
+
+        model.clear();
+
+        assertEquals(0, model.nodeCount());
+        assertEquals(0, model.edgeCount());
+        assertFalse(model.isNode(a));
+        int c = node(), d = node();
+        assertEquals(-1, model.findEdge(c, d));
+        assertTrue(model.connect(c, d) >= 0);
+    }
+
+    @Test
+    void unknownIdsAreRejected() {
+        int a = node();
+
+        assertThrows(IllegalArgumentException.class, () -> model.connect(a, 5));
+        assertThrows(IllegalArgumentException.class, () -> model.disconnect(0));
+        assertThrows(IllegalArgumentException.class, () -> model.removeNode(7));
+    }
+}
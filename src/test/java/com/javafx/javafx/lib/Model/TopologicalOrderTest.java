@@ -0,0 +1,80 @@
+package com.javafx.javafx.lib.Model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopologicalOrderTest {
+
+    private final GraphModel model = new GraphModel();
+
+    private int node() {
+        return model.addNode(0, 0, 10, 10);
+    }
+
+    @Test
+    void cuttingALoadedCycleRestoresTheOrder() {
+        int a = node(), b = node(), c = node();
+        int ab = model.connect(a, b);
+        model.connect(b, c);
+        model.connect(c, a);
+        // Built over an existing cycle, as when a file is loaded
+        TopologicalOrder order = new TopologicalOrder(model);
+        assertFalse(order.isAcyclic());
+
+        model.disconnect(ab);
+
+        assertTrue(order.isAcyclic());
+        assertTrue(order.precedes(b, c));
+        assertTrue(order.precedes(c, a));
+        // C -> A is back in the order, so A -> C would close a cycle
+        assertTrue(order.wouldCreateCycle(a, c));
+    }
+
+    @Test
+    void cuttingAnIncrementalCycleRestoresTheOrder() {
+        TopologicalOrder order = new TopologicalOrder(model);
+        int a = node(), b = node(), c = node();
+        model.connect(a, b);
+        int bc = model.connect(b, c);
+        int ca = model.connect(c, a);
+        assertTrue(order.isCyclicEdge(ca));
+
+        model.disconnect(bc);
+
+        assertTrue(order.isAcyclic());
+        assertTrue(order.precedes(c, a));
+        assertTrue(order.wouldCreateCycle(b, c));
+        assertFalse(order.wouldCreateCycle(c, b));
+    }
+
+    @Test
+    void edgesOnAnotherCycleStayFlagged() {
+        TopologicalOrder order = new TopologicalOrder(model);
+        int a = node(), b = node(), c = node(), d = node();
+        int ab = model.connect(a, b);
+        int ba = model.connect(b, a);
+        model.connect(c, d);
+        int dc = model.connect(d, c);
+
+        model.disconnect(ab);
+
+        assertFalse(order.isCyclicEdge(ba));
+        assertTrue(order.isCyclicEdge(dc));
+        assertFalse(order.isAcyclic());
+    }
+
+    @Test
+    void removingAFlaggedEdgeKeepsTheRestOfTheOrder() {
+        TopologicalOrder order = new TopologicalOrder(model);
+        int a = node(), b = node();
+        model.connect(a, b);
+        int ba = model.connect(b, a);
+
+        model.disconnect(ba);
+
+        assertTrue(order.isAcyclic());
+        assertTrue(order.precedes(a, b));
+    }
+}
@@ -0,0 +1,132 @@
+package com.javafx.javafx.lib.Persistence;
+
+import com.javafx.javafx.perf.HeadlessEditor;
+import com.javafx.javafx.perf.SyntheticGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.javafx.javafx.perf.HeadlessEditor.onFx;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Saves and loads through GraphFile and a headless editor's GraphStore
+class GraphStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private HeadlessEditor editor;
+
+    @BeforeEach
+    void openEditor() {
+        editor = HeadlessEditor.open(new SyntheticGraph("empty", new double[0], new double[0], new int[0], new int[0]));
+    }
+
+    @AfterEach
+    void closeEditor() {
+        editor.close();
+    }
+
+    @Test
+    void savedGraphLoadsBackUnchanged() throws Exception {
+        // Sparse file ids, as left behind by deleted nodes
+        GraphSnapshot graph = new GraphSnapshot(new String[]{"Source", "Filter", "Sink", "Map"},
+                new int[]{7, 3, 12, 40}, new double[]{10, 300, 600, 300}, new double[]{20, 40, 60, 200},
+                new int[]{0, 1, 2, 3}, new int[]{0, 1, 2, 0},
+                new int[]{7, 7, 3, 40}, new int[]{3, 40, 12, 12});
+
+        GraphSnapshot loaded = load(graph);
+
+        assertEquals(describeNodes(graph), describeNodes(loaded));
+        assertEquals(describeEdges(graph), describeEdges(loaded));
+
+        // And once more through a save of what was loaded
+        Path file = dir.resolve("again.graph");
+        GraphFile.write(file, loaded);
+        GraphSnapshot reread = GraphFile.read(file);
+        assertEquals(describeNodes(graph), describeNodes(reread));
+        assertEquals(describeEdges(graph), describeEdges(reread));
+    }
+
+    @Test
+    void wiresClosingACycleAreSkipped() throws Exception {
+        GraphSnapshot graph = new GraphSnapshot(new String[]{"A", "B", "C"},
+                new int[]{0, 1, 2}, new double[]{0, 200, 400}, new double[]{0, 0, 0},
+                new int[]{0, 1, 2}, new int[]{0, 0, 0},
+                new int[]{0, 1, 2, 1}, new int[]{1, 2, 0, 1});
+
+        GraphSnapshot loaded = load(graph);
+
+        assertEquals(Set.of("A -> B", "B -> C"), describeEdges(loaded));
+        assertTrue(onFx(() -> editor.connectionManager.getTopologicalOrder().isAcyclic()));
+    }
+
+    @Test
+    void failedSaveKeepsThePreviousFile() throws IOException {
+        Path file = dir.resolve("graph.graph");
+        GraphSnapshot graph = new GraphSnapshot(new String[]{"A"},
+                new int[]{0}, new double[]{1}, new double[]{2}, new int[]{0}, new int[]{0}, new int[0], new int[0]);
+        GraphFile.write(file, graph);
+        byte[] before = Files.readAllBytes(file);
+
+        // A missing title fails halfway through the string pool
+        GraphSnapshot broken = new GraphSnapshot(new String[]{"B", null},
+                new int[]{0, 1}, new double[]{0, 0}, new double[]{0, 0}, new int[]{0, 1}, new int[]{0, 0}, new int[0], new int[0]);
+        assertThrows(NullPointerException.class, () -> GraphFile.write(file, broken));
+
+        assertArrayEquals(before, Files.readAllBytes(file));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    private GraphSnapshot load(GraphSnapshot graph) throws Exception {
+        Path file = dir.resolve("graph.graph");
+        GraphFile.write(file, graph);
+
+        CountDownLatch loaded = new CountDownLatch(1);
+        onFx(() -> {
+            editor.graphStore.load(file, loaded::countDown);
+            return null;
+        });
+        assertTrue(loaded.await(60, TimeUnit.SECONDS), "graph did not finish loading");
+        return onFx(editor.graphStore::capture);
+    }
+
+    // Node ids are not kept across a load, so nodes are compared by what they hold
+    private static Set<String> describeNodes(GraphSnapshot graph) {
+        Set<String> nodes = new HashSet<>();
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            nodes.add(graph.title(i) + " at " + graph.x()[i] + "," + graph.y()[i] + " max " + graph.maxConnections()[i]);
+        }
+        return nodes;
+    }
+
+    private static Set<String> describeEdges(GraphSnapshot graph) {
+        Map<Integer, String> titles = new HashMap<>();
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            titles.put(graph.nodeIds()[i], graph.title(i));
+        }
+        Set<String> edges = new HashSet<>();
+        for (int i = 0; i < graph.edgeCount(); i++) {
+            edges.add(titles.get(graph.edgeFrom()[i]) + " -> " + titles.get(graph.edgeTo()[i]));
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,87 @@
+package com.javafx.javafx.lib.Spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialGridTest {
+
+    private final SpatialGrid<String> grid = new SpatialGrid<>(100);
+
+    @Test
+    void itemsSpanningCellsAreReportedOnce() {
+        grid.put("wide", new Rect(50, 50, 350, 80));
+
+        assertEquals(List.of("wide"), grid.query(new Rect(0, 0, 400, 400)));
+        assertEquals(List.of("wide"), grid.queryPoint(320, 60));
+    }
+
+    @Test
+    void queriesOnlyReturnIntersectingItems() {
+        grid.put("a", new Rect(10, 10, 20, 20));
+        grid.put("b", new Rect(60, 60, 70, 70));
+
+        // Same cell as both, but only overlapping one
+        assertEquals(List.of("a"), grid.query(new Rect(0, 0, 30, 30)));
+        assertEquals(List.of(), grid.queryPoint(40, 40));
+    }
+
+    @Test
+    void movedItemsAreFoundOnlyAtTheirNewPlace() {
+        grid.put("node", new Rect(10, 10, 20, 20));
+        grid.put("node", new Rect(510, 510, 520, 520));
+
+        assertEquals(1, grid.size());
+        assertEquals(List.of(), grid.query(new Rect(0, 0, 100, 100)));
+        assertEquals(List.of("node"), grid.query(new Rect(500, 500, 600, 600)));
+        assertEquals(new Rect(510, 510, 520, 520), grid.getBounds("node"));
+    }
+
+    @Test
+    void removedItemsAreGone() {
+        grid.put("node", new Rect(-150, -150, 150, 150));
+        grid.remove("node");
+
+        assertFalse(grid.contains("node"));
+        assertNull(grid.getBounds("node"));
+        assertEquals(List.of(), grid.query(new Rect(-200, -200, 200, 200)));
+    }
+
+    @Test
+    void matchesABruteForceScan() {
+        Random random = new Random(7);
+        Rect[] bounds = new Rect[500];
+        for (int i = 0; i < bounds.length; i++) {
+            double x = random.nextDouble() * 2000 - 1000, y = random.nextDouble() * 2000 - 1000;
+            bounds[i] = Rect.of(x, y, x + random.nextDouble() * 300, y + random.nextDouble() * 300);
+            grid.put("n" + i, bounds[i]);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            double x = random.nextDouble() * 2000 - 1000, y = random.nextDouble() * 2000 - 1000;
+            Rect area = Rect.of(x, y, x + random.nextDouble() * 500, y + random.nextDouble() * 500);
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < bounds.length; i++) {
+                if (bounds[i].intersects(area)) expected.add("n" + i);
+            }
+            List<String> found = grid.query(area);
+            assertEquals(expected.size(), found.size());
+            assertEquals(expected, new HashSet<>(found));
+        }
+    }
+
+    @Test
+    void cellSizeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SpatialGrid<String>(0));
+        assertTrue(new SpatialGrid<String>(0.5).query(new Rect(0, 0, 1, 1)).isEmpty());
+    }
+}
@@ -0,0 +1,241 @@
+package com.javafx.javafx.perf;
+
+import com.javafx.javafx.lib.Connectors.ConnectionManager;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.History.EditJournal;
+import com.javafx.javafx.lib.Input.CanvasInputDispatcher;
+import com.javafx.javafx.lib.Persistence.GraphStore;
+import com.javafx.javafx.lib.Rendering.CanvasWireRenderer;
+import com.javafx.javafx.lib.Selection.SelectionBox;
+import com.javafx.javafx.lib.Spatial.Rect;
+import com.javafx.javafx.lib.Viewport.LevelOfDetailController;
+import com.javafx.javafx.lib.Viewport.ViewportVirtualizer;
+import com.javafx.javafx.lib.Viewport.ZoomController;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.geometry.Point2D;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The editor as MainApp.start() wires it up, shown on a headless stage so that real
+// pulses, layout and picking run. Everything except the helpers below must be used
+// on the FX thread
+public class HeadlessEditor {
+
+    public static final double WIDTH = 1280;
+    public static final double HEIGHT = 800;
+    public static final double MIN_SCALE = 0.1;
+    public static final double MAX_SCALE = 2;
+    private static final long TIMEOUT_SECONDS = 60;
+    private static final long HISTORY_BYTES = 16 * 1024 * 1024;
+
+    private static boolean started = false;
+
+    public final AnchorPane canvas = new AnchorPane();
+    public final AnchorPane contentGroup = new AnchorPane();
+    public final ConnectionManager connectionManager;
+    public final ViewportVirtualizer virtualizer;
+    public final LevelOfDetailController levelOfDetail;
+    public final CanvasInputDispatcher input;
+    public final GraphStore graphStore;
+    public final EditJournal journal;
+    public final List<GraphNode> nodes = new ArrayList<>();
+    private final Stage stage;
+
+    private HeadlessEditor(SyntheticGraph graph) {
+        canvas.setPrefSize(WIDTH, HEIGHT);
+        contentGroup.prefWidthProperty().bind(canvas.widthProperty());
+        contentGroup.prefHeightProperty().bind(canvas.heightProperty());
+        contentGroup.setPickOnBounds(false);
+        canvas.getChildren().add(contentGroup);
+
+        connectionManager = new ConnectionManager(contentGroup);
+        connectionManager.setWireRenderer(new CanvasWireRenderer(
+                canvas, contentGroup, connectionManager.getWireIndex(), connectionManager.getWireRouter()));
+        virtualizer = new ViewportVirtualizer(canvas, contentGroup, connectionManager);
+        virtualizer.setEnabled(true);
+        levelOfDetail = new LevelOfDetailController(contentGroup, connectionManager);
+        new ZoomController(canvas, contentGroup, MIN_SCALE, MAX_SCALE);
+
+        SelectionBox selectionBox = new SelectionBox(contentGroup, connectionManager.getNodeIndex(), connectionManager.getSelection());
+        input = new CanvasInputDispatcher(canvas, contentGroup, connectionManager, selectionBox);
+        // MainApp coalesces pans per pulse, the deltas here arrive one per pulse anyway
+        input.setOnPan((deltaX, deltaY) -> {
+            contentGroup.setTranslateX(contentGroup.getTranslateX() + deltaX);
+            contentGroup.setTranslateY(contentGroup.getTranslateY() + deltaY);
+        });
+
+        graphStore = new GraphStore(connectionManager, contentGroup, this::createNode);
+        journal = new EditJournal(connectionManager, contentGroup, this::createNode, HISTORY_BYTES);
+        connectionManager.setJournal(journal);
+
+        for (int i = 0; i < graph.nodeCount(); i++) {
+            GraphNode node = createNode("Node " + i, 0);
+            node.setLayoutX(graph.x()[i]);
+            node.setLayoutY(graph.y()[i]);
+            contentGroup.getChildren().add(node);
+            connectionManager.registerNode(node);
+            nodes.add(node);
+        }
+        for (int i = 0; i < graph.edgeCount(); i++) {
+            connectionManager.connect(nodes.get(graph.from()[i]), nodes.get(graph.to()[i]));
+        }
+
+        stage = new Stage();
+        stage.setScene(new Scene(canvas, WIDTH, HEIGHT));
+        stage.show();
+    }
+
+    public static HeadlessEditor open(SyntheticGraph graph) {
+        startPlatform();
+        HeadlessEditor editor = onFx(() -> new HeadlessEditor(graph));
+        // Let the virtualizer and the wire renderer settle before anything is measured
+        for (int i = 0; i < 3; i++) waitForPulse();
+        return editor;
+    }
+
+    public void close() {
+        onFx(() -> {
+            stage.close();
+            return null;
+        });
+    }
+
+    // Same node as MainApp.createNode
+    private GraphNode createNode(String title, int maxConnections) {
+        Rectangle background = new Rectangle(120, 60);
+        background.setArcWidth(15);
+        background.setArcHeight(15);
+        background.setFill(Color.DARKSLATEBLUE);
+        background.setStrokeWidth(2);
+        background.setStroke(Color.TRANSPARENT);
+
+        GraphNode graphNode = new GraphNode(title, maxConnections, connectionManager, background, contentGroup, contentGroup);
+        graphNode.setDetailLevel(levelOfDetail.getLevel());
+        return graphNode;
+    }
+
+    // Nodes entirely inside the window, so events fired at their scene position reach them
+    public List<GraphNode> visibleNodes() {
+        Point2D topLeft = contentGroup.parentToLocal(0, 0);
+        Point2D bottomRight = contentGroup.parentToLocal(WIDTH, HEIGHT);
+        Rect visible = Rect.of(topLeft.getX(), topLeft.getY(), bottomRight.getX(), bottomRight.getY());
+        List<GraphNode> result = new ArrayList<>(connectionManager.getNodeIndex().query(visible));
+        result.removeIf(node -> {
+            Rect bounds = connectionManager.getNodeIndex().getBounds(node);
+            return node.getScene() == null
+                    || !visible.contains(bounds.minX(), bounds.minY()) || !visible.contains(bounds.maxX(), bounds.maxY());
+        });
+        return result;
+    }
+
+    // Mouse event at scene coordinates as glass would deliver it on empty canvas; the
+    // dispatcher finds what is under the point itself
+    public void fireMouse(EventType<MouseEvent> type, double sceneX, double sceneY, MouseButton button) {
+        boolean down = type != MouseEvent.MOUSE_RELEASED;
+        MouseEvent event = new MouseEvent(type, sceneX, sceneY, sceneX, sceneY, button, 1,
+                false, false, false, false,
+                down && button == MouseButton.PRIMARY,
+                down && button == MouseButton.MIDDLE,
+                down && button == MouseButton.SECONDARY,
+                false, false, false, null);
+        Event.fireEvent(canvas, event);
+    }
+
+    // One notch of the mouse wheel at scene coordinates, positive deltaY zooms in
+    public void fireScroll(double sceneX, double sceneY, double deltaY) {
+        ScrollEvent event = new ScrollEvent(ScrollEvent.SCROLL, sceneX, sceneY, sceneX, sceneY,
+                false, false, false, false, false, false,
+                0, deltaY, 0, deltaY,
+                ScrollEvent.HorizontalTextScrollUnits.NONE, 0,
+                ScrollEvent.VerticalTextScrollUnits.NONE, 0,
+                0, null);
+        Event.fireEvent(canvas, event);
+    }
+
+    // Runs the action on the FX thread and returns the time until the pulse that shows its result
+    public static long measure(Runnable action) {
+        long start = onFx(() -> {
+            long s = System.nanoTime();
+            action.run();
+            return s;
+        });
+        waitForPulse();
+        return System.nanoTime() - start;
+    }
+
+    // Returns once a full pulse, including scheduled updates, layout and rendering, has run
+    public static void waitForPulse() {
+        CountDownLatch latch = new CountDownLatch(1);
+        onFx(() -> {
+            new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    stop();
+                    // Runs after the rest of this pulse
+                    Platform.runLater(latch::countDown);
+                }
+            }.start();
+            return null;
+        });
+        await(latch);
+    }
+
+    public static <T> T onFx(Callable<T> action) {
+        if (Platform.isFxApplicationThread()) {
+            try {
+                return action.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        FutureTask<T> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        try {
+            return task.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            throw new IllegalStateException("FX thread did not respond", e);
+        }
+    }
+
+    private static synchronized void startPlatform() {
+        if (started) return;
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        Platform.setImplicitExit(false);
+        await(latch);
+        started = true;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("FX thread did not respond");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.javafx.javafx.perf;
+
+import com.javafx.javafx.lib.Connectors.ConnectorPoint;
+import com.javafx.javafx.lib.DataHolders.ConnectionRecord;
+import com.javafx.javafx.lib.GraphNode.GraphNode;
+import com.javafx.javafx.lib.Metrics.LatencyHistogram;
+import com.javafx.javafx.lib.Spatial.Rect;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.shape.Line;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.javafx.javafx.perf.HeadlessEditor.measure;
+import static com.javafx.javafx.perf.HeadlessEditor.onFx;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Replays scripted gestures through the canvas input dispatcher of a headless editor,
+// checks that each one did what it should, and fails when the p90 time from input to
+// the pulse that shows it goes over budget. Graph size comes from -Dperf.nodes, and
+// -Dperf.budgetScale loosens or tightens every budget for slower or faster machines
+class InteractionLatencyTest {
+
+    private static final int NODES = Integer.getInteger("perf.nodes", 5000);
+    private static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("perf.budgetScale", "1"));
+    private static final long SEED = 42;
+
+    private static final double PAN_BUDGET_MILLIS = 50;
+    private static final double ZOOM_BUDGET_MILLIS = 50;
+    private static final double DRAG_BUDGET_MILLIS = 50;
+    private static final double CONNECT_BUDGET_MILLIS = 50;
+    private static final double SWEEP_BUDGET_MILLIS = 100;
+    private static final double BOX_SELECTION_BUDGET_MILLIS = 50;
+
+    // Built once per graph kind; the gestures below leave the graph usable for the next one
+    private static final Map<SyntheticGraphs.Kind, HeadlessEditor> editors = new EnumMap<>(SyntheticGraphs.Kind.class);
+
+    private static HeadlessEditor editor(SyntheticGraphs.Kind kind) {
+        return editors.computeIfAbsent(kind, k -> HeadlessEditor.open(k.generate(NODES, SEED)));
+    }
+
+    @AfterAll
+    static void closeEditors() {
+        editors.values().forEach(HeadlessEditor::close);
+        editors.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticGraphs.Kind.class)
+    void pan(SyntheticGraphs.Kind kind, TestReporter reporter) {
+        HeadlessEditor editor = editor(kind);
+        LatencyHistogram samples = new LatencyHistogram();
+        double startX = HeadlessEditor.WIDTH / 2;
+        double startY = HeadlessEditor.HEIGHT / 2;
+
+        onFx(() -> {
+            editor.fireMouse(MouseEvent.MOUSE_PRESSED, startX, startY, MouseButton.MIDDLE);
+            return null;
+        });
+        for (int i = 1; i <= 40; i++) {
+            // Out and back, so the view ends up where it started
+            int offset = i <= 20 ? i : 40 - i;
+            samples.record(measure(() -> editor.fireMouse(MouseEvent.MOUSE_DRAGGED,
+                    startX - 25 * offset, startY - 12.5 * offset, MouseButton.MIDDLE)));
+        }
+        onFx(() -> {
+            editor.fireMouse(MouseEvent.MOUSE_RELEASED, startX, startY, MouseButton.MIDDLE);
+            return null;
+        });
+        assertWithinBudget(reporter, "pan", kind, samples, PAN_BUDGET_MILLIS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticGraphs.Kind.class)
+    void zoom(SyntheticGraphs.Kind kind, TestReporter reporter) {
+        HeadlessEditor editor = editor(kind);
+        LatencyHistogram samples = new LatencyHistogram();
+        double pivotX = HeadlessEditor.WIDTH / 2;
+        double pivotY = HeadlessEditor.HEIGHT / 2;
+        double startScale = onFx(editor.contentGroup::getScaleX);
+        Point2D pivotInContent = onFx(() -> editor.contentGroup.sceneToLocal(pivotX, pivotY));
+
+        // Wheel notches through the editor's own scroll handler, 20 out and 20 back in
+        for (int i = 0; i < 40; i++) {
+            double delta = i < 20 ? -40 : 40;
+            samples.record(measure(() -> editor.fireScroll(pivotX, pivotY, delta)));
+            if (i == 19) {
+                double zoomedOut = onFx(editor.contentGroup::getScaleX);
+                assertEquals(Math.max(startScale / Math.pow(1.05, 20), HeadlessEditor.MIN_SCALE), zoomedOut, 1e-9,
+                        "zoom on " + kind + " did not scale the content");
+            }
+        }
+
+        double zoomedBack = onFx(editor.contentGroup::getScaleX);
+        Point2D pivotNow = onFx(() -> editor.contentGroup.localToScene(pivotInContent));
+        assertEquals(startScale, zoomedBack, 1e-9, "zoom on " + kind + " did not zoom back");
+        assertEquals(pivotX, pivotNow.getX(), 1e-6, "zoom on " + kind + " moved the point under the mouse");
+        assertEquals(pivotY, pivotNow.getY(), 1e-6, "zoom on " + kind + " moved the point under the mouse");
+        assertWithinBudget(reporter, "zoom", kind, samples, ZOOM_BUDGET_MILLIS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticGraphs.Kind.class)
+    void dragSelection(SyntheticGraphs.Kind kind, TestReporter reporter) {
+        HeadlessEditor editor = editor(kind);
+        LatencyHistogram samples = new LatencyHistogram();
+
+        GraphNode grabbed = onFx(() -> {
+            List<GraphNode> visible = editor.visibleNodes();
+            List<GraphNode> selected = visible.subList(0, Math.min(50, visible.size()));
+            editor.connectionManager.getSelection().clear();
+            editor.connectionManager.getSelection().selectMultiple(selected);
+            // The press has to land on a selected node, not on a node or connector lying over it
+            for (GraphNode node : selected) {
+                Point2D center = editor.contentGroup.sceneToLocal(sceneCenter(node));
+                if (editor.connectionManager.findConnectorAt(center.getX(), center.getY()) == null
+                        && editor.connectionManager.findNodeAt(center.getX(), center.getY()) == node) {
+                    return node;
+                }
+            }
+            return fail("every selected node on " + kind + " is covered by another");
+        });
+        Point2D start = onFx(() -> sceneCenter(grabbed));
+        Map<GraphNode, Point2D> before = onFx(() -> positions(editor.connectionManager.getSelection().getSelectedNodes()));
+
+        onFx(() -> {
+            editor.fireMouse(MouseEvent.MOUSE_PRESSED, start.getX(), start.getY(), MouseButton.PRIMARY);
+            return null;
+        });
+        for (int i = 1; i <= 30; i++) {
+            double x = start.getX() + 3 * i;
+            double y = start.getY() + 2 * i;
+            samples.record(measure(() -> editor.fireMouse(MouseEvent.MOUSE_DRAGGED, x, y, MouseButton.PRIMARY)));
+        }
+        // The drag is 90, 60 on screen; in the content that depends on the zoom
+        Point2D moved = onFx(() -> {
+            editor.fireMouse(MouseEvent.MOUSE_RELEASED, start.getX() + 90, start.getY() + 60, MouseButton.PRIMARY);
+            editor.connectionManager.getSelection().clear();
+            return editor.contentGroup.sceneToLocal(start.getX() + 90, start.getY() + 60)
+                    .subtract(editor.contentGroup.sceneToLocal(start));
+        });
+        Map<GraphNode, Point2D> after = onFx(() -> positions(before.keySet()));
+
+        for (Map.Entry<GraphNode, Point2D> entry : before.entrySet()) {
+            Point2D expected = entry.getValue().add(moved);
+            Point2D actual = after.get(entry.getKey());
+            assertEquals(expected.getX(), actual.getX(), 1e-6, "drag on " + kind + " left a node behind");
+            assertEquals(expected.getY(), actual.getY(), 1e-6, "drag on " + kind + " left a node behind");
+        }
+        assertWithinBudget(reporter, "drag", kind, samples, DRAG_BUDGET_MILLIS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticGraphs.Kind.class)
+    void connect(SyntheticGraphs.Kind kind, TestReporter reporter) {
+        HeadlessEditor editor = editor(kind);
+        LatencyHistogram samples = new LatencyHistogram();
+        Random random = new Random(SEED);
+        List<GraphNode> visible = onFx(editor::visibleNodes);
+        int wiresBefore = onFx(() -> editor.connectionManager.getConnections().size());
+        int expectedNew = 0;
+
+        for (int i = 0; i < 30; i++) {
+            GraphNode a = visible.get(random.nextInt(visible.size()));
+            GraphNode b = visible.get(random.nextInt(visible.size()));
+            if (a == b) continue;
+            // Generated wires all point to higher indexes, so this never closes a cycle
+            boolean forward = editor.nodes.indexOf(a) < editor.nodes.indexOf(b);
+            GraphNode source = forward ? a : b;
+            GraphNode target = forward ? b : a;
+            ConnectorPoint output = source.getConnector(ConnectorPoint.Type.OUTPUT);
+            ConnectorPoint input = target.getConnector(ConnectorPoint.Type.INPUT);
+            // A click on a connector covered by another node's would connect something else
+            if (!onFx(() -> hits(editor, output) && hits(editor, input))) continue;
+            if (!onFx(() -> editor.connectionManager.connectionExists(source, target))) expectedNew++;
+
+            samples.record(measure(() -> {
+                click(editor, output);
+                click(editor, input);
+            }));
+        }
+
+        int wiresAfter = onFx(() -> editor.connectionManager.getConnections().size());
+        assertEquals(expectedNew, wiresAfter - wiresBefore, "connect on " + kind + " did not add one wire per new pair");
+        assertWithinBudget(reporter, "connect", kind, samples, CONNECT_BUDGET_MILLIS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticGraphs.Kind.class)
+    void sweepCut(SyntheticGraphs.Kind kind, TestReporter reporter) {
+        HeadlessEditor editor = editor(kind);
+        LatencyHistogram samples = new LatencyHistogram();
+        Random random = new Random(SEED);
+
+        for (int sweep = 0; sweep < 8; sweep++) {
+            Sweep across = onFx(() -> sweepAcrossWire(editor, random));
+            Point2D from = across.from();
+            Point2D to = across.to();
+            onFx(() -> {
+                editor.fireMouse(MouseEvent.MOUSE_PRESSED, from.getX(), from.getY(), MouseButton.SECONDARY);
+                return null;
+            });
+            // Live preview while dragging, then the cut itself on release
+            for (int i = 1; i <= 10; i++) {
+                double endX = from.getX() + (to.getX() - from.getX()) * i / 10;
+                double endY = from.getY() + (to.getY() - from.getY()) * i / 10;
+                samples.record(measure(() ->
+                        editor.fireMouse(MouseEvent.MOUSE_DRAGGED, endX, endY, MouseButton.SECONDARY)));
+            }
+            int wiresBefore = onFx(() -> editor.connectionManager.getConnections().size());
+            samples.record(measure(() ->
+                    editor.fireMouse(MouseEvent.MOUSE_RELEASED, to.getX(), to.getY(), MouseButton.SECONDARY)));
+
+            ConnectionRecord wire = across.wire();
+            assertFalse(onFx(() -> editor.connectionManager.connectionExists(wire.from(), wire.to())),
+                    "sweep on " + kind + " did not cut the wire it crossed");
+            assertTrue(onFx(() -> editor.connectionManager.getConnections().size()) < wiresBefore,
+                    "sweep on " + kind + " cut no wires");
+        }
+        assertWithinBudget(reporter, "sweep cut", kind, samples, SWEEP_BUDGET_MILLIS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SyntheticGraphs.Kind.class)
+    void boxSelection(SyntheticGraphs.Kind kind, TestReporter reporter) {
+        HeadlessEditor editor = editor(kind);
+        LatencyHistogram samples = new LatencyHistogram();
+        Random random = new Random(SEED);
+
+        for (int box = 0; box < 4; box++) {
+            Point2D from = onFx(() -> emptyPoint(editor, random, HeadlessEditor.WIDTH / 4, HeadlessEditor.HEIGHT / 4));
+            double width = HeadlessEditor.WIDTH - 40 - from.getX();
+            double height = HeadlessEditor.HEIGHT - 40 - from.getY();
+            onFx(() -> {
+                editor.fireMouse(MouseEvent.MOUSE_PRESSED, from.getX(), from.getY(), MouseButton.PRIMARY);
+                return null;
+            });
+            for (int i = 1; i <= 20; i++) {
+                double x = from.getX() + width * i / 20;
+                double y = from.getY() + height * i / 20;
+                samples.record(measure(() -> editor.fireMouse(MouseEvent.MOUSE_DRAGGED, x, y, MouseButton.PRIMARY)));
+            }
+            samples.record(measure(() -> editor.fireMouse(MouseEvent.MOUSE_RELEASED,
+                    from.getX() + width, from.getY() + height, MouseButton.PRIMARY)));
+
+            // Three quarters of the window at the least, with thousands of nodes around
+            assertFalse(onFx(() -> editor.connectionManager.getSelection().isEmpty()),
+                    "box selection on " + kind + " selected nothing");
+        }
+        onFx(() -> {
+            editor.connectionManager.getSelection().clear();
+            return null;
+        });
+        assertWithinBudget(reporter, "box selection", kind, samples, BOX_SELECTION_BUDGET_MILLIS);
+    }
+
+    private record Sweep(ConnectionRecord wire, Point2D from, Point2D to) {
+    }
+
+    // A sweep in scene coordinates across the middle of a wire on screen, starting and
+    // ending over empty canvas so the press starts a sweep rather than hitting a node
+    private static Sweep sweepAcrossWire(HeadlessEditor editor, Random random) {
+        Point2D topLeft = editor.contentGroup.sceneToLocal(100, 100);
+        Point2D bottomRight = editor.contentGroup.sceneToLocal(HeadlessEditor.WIDTH - 100, HeadlessEditor.HEIGHT - 100);
+        List<ConnectionRecord> wires = editor.connectionManager.getWireIndex()
+                .query(Rect.of(topLeft.getX(), topLeft.getY(), bottomRight.getX(), bottomRight.getY()));
+
+        for (int attempt = 0; attempt < 1000 && !wires.isEmpty(); attempt++) {
+            ConnectionRecord wire = wires.get(random.nextInt(wires.size()));
+            Line line = wire.line();
+            Point2D start = editor.contentGroup.localToScene(line.getStartX(), line.getStartY());
+            Point2D end = editor.contentGroup.localToScene(line.getEndX(), line.getEndY());
+            double length = start.distance(end);
+            if (length < 1) continue;
+
+            Point2D middle = start.midpoint(end);
+            Point2D normal = new Point2D(start.getY() - end.getY(), end.getX() - start.getX()).multiply(60 / length);
+            Point2D from = middle.subtract(normal);
+            Point2D to = middle.add(normal);
+            if (isEmptyCanvas(editor, from) && isEmptyCanvas(editor, to)) return new Sweep(wire, from, to);
+        }
+        return fail("no wire on screen with empty canvas on both sides");
+    }
+
+    // Scene point over empty canvas, so a press there starts a sweep or a selection box
+    // rather than hitting a node
+    private static Point2D emptyPoint(HeadlessEditor editor, Random random, double maxX, double maxY) {
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            Point2D point = new Point2D(100 + random.nextDouble() * (maxX - 100), 100 + random.nextDouble() * (maxY - 100));
+            if (isEmptyCanvas(editor, point)) return point;
+        }
+        return fail("no empty canvas point found in 1000 attempts");
+    }
+
+    private static boolean isEmptyCanvas(HeadlessEditor editor, Point2D scenePoint) {
+        Point2D content = editor.contentGroup.sceneToLocal(scenePoint);
+        return editor.connectionManager.findNodeAt(content.getX(), content.getY()) == null;
+    }
+
+    private static boolean hits(HeadlessEditor editor, ConnectorPoint connector) {
+        Point2D center = editor.contentGroup.sceneToLocal(sceneCenter(connector));
+        return editor.connectionManager.findConnectorAt(center.getX(), center.getY()) == connector;
+    }
+
+    private static Map<GraphNode, Point2D> positions(Iterable<GraphNode> nodes) {
+        Map<GraphNode, Point2D> positions = new HashMap<>();
+        for (GraphNode node : nodes) positions.put(node, new Point2D(node.getLayoutX(), node.getLayoutY()));
+        return positions;
+    }
+
+    private static void click(HeadlessEditor editor, Node target) {
+        Point2D center = sceneCenter(target);
+        editor.fireMouse(MouseEvent.MOUSE_PRESSED, center.getX(), center.getY(), MouseButton.PRIMARY);
+        editor.fireMouse(MouseEvent.MOUSE_RELEASED, center.getX(), center.getY(), MouseButton.PRIMARY);
+    }
+
+    private static Point2D sceneCenter(Node node) {
+        Bounds bounds = node.localToScene(node.getBoundsInLocal());
+        return new Point2D(bounds.getCenterX(), bounds.getCenterY());
+    }
+
+    private static void assertWithinBudget(TestReporter reporter, String gesture, SyntheticGraphs.Kind kind,
+                                           LatencyHistogram samples, double budgetMillis) {
+        LatencyHistogram.Snapshot snapshot = samples.snapshot();
+        double p90 = snapshot.p90Nanos() / 1e6;
+        double budget = budgetMillis * BUDGET_SCALE;
+        String summary = String.format("n=%d p50=%.2f ms p90=%.2f ms max=%.2f ms budget=%.2f ms",
+                snapshot.count(), snapshot.p50Nanos() / 1e6, p90, snapshot.maxNanos() / 1e6, budget);
+        reporter.publishEntry(gesture + " " + kind, summary);
+
+        assertTrue(snapshot.count() > 0, gesture + " on " + kind + " recorded no samples");
+        assertTrue(p90 <= budget, gesture + " on " + kind + " over budget: " + summary);
+    }
+}
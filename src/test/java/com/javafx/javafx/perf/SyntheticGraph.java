@@ -0,0 +1,18 @@
+package com.javafx.javafx.perf;
+
+// Node positions and wires of a generated graph; wire i runs from node from[i] to node to[i]
+public record SyntheticGraph(String name, double[] x, double[] y, int[] from, int[] to) {
+
+    public int nodeCount() {
+        return x.length;
+    }
+
+    public int edgeCount() {
+        return from.length;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + nodeCount() + " nodes, " + edgeCount() + " wires)";
+    }
+}
@@ -0,0 +1,131 @@
+package com.javafx.javafx.perf;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+// Deterministic graph generators for the interaction tests. Every graph has wires
+// pointing from lower to higher node index, so all of them are acyclic
+public final class SyntheticGraphs {
+
+    public static final double SPACING_X = 220;
+    public static final double SPACING_Y = 110;
+
+    public enum Kind {
+        RANDOM, LAYERED, CLUSTERED;
+
+        public SyntheticGraph generate(int nodes, long seed) {
+            return switch (this) {
+                case RANDOM -> random(nodes, 2, seed);
+                case LAYERED -> layeredDag(Math.max(2, (int) Math.sqrt(nodes)), nodes, 3, seed);
+                case CLUSTERED -> denseClusters(Math.max(1, nodes / 50), 50, 0.15, seed);
+            };
+        }
+    }
+
+    private SyntheticGraphs() {
+    }
+
+    // Nodes scattered uniformly over a square; each wire goes to one of the nearer
+    // nodes in index order, so wires stay fairly short like in hand-built graphs
+    public static SyntheticGraph random(int nodes, int wiresPerNode, long seed) {
+        Random random = new Random(seed);
+        double side = Math.sqrt(nodes) * SPACING_X;
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = random.nextDouble() * side;
+            y[i] = random.nextDouble() * side;
+        }
+
+        Edges edges = new Edges(nodes * wiresPerNode);
+        int window = Math.max(2, (int) Math.sqrt(nodes));
+        for (int i = 0; i < nodes - 1; i++) {
+            for (int k = 0; k < wiresPerNode; k++) {
+                int to = i + 1 + random.nextInt(Math.min(window, nodes - i - 1));
+                edges.add(i, to);
+            }
+        }
+        return edges.build("random", x, y);
+    }
+
+    // Dataflow-shaped graph: columns of nodes, wires only from one column to the next
+    public static SyntheticGraph layeredDag(int layers, int nodes, int fanOut, long seed) {
+        Random random = new Random(seed);
+        int perLayer = (int) Math.ceil((double) nodes / layers);
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            x[i] = (i / perLayer) * SPACING_X;
+            y[i] = (i % perLayer) * SPACING_Y;
+        }
+
+        Edges edges = new Edges(nodes * fanOut);
+        for (int i = 0; i + perLayer < nodes; i++) {
+            int row = i % perLayer;
+            int nextLayerStart = (i / perLayer + 1) * perLayer;
+            int nextLayerSize = Math.min(perLayer, nodes - nextLayerStart);
+            for (int k = 0; k < fanOut; k++) {
+                // Mostly to nearby rows, as a real pipeline would be drawn
+                int offset = (int) Math.round(random.nextGaussian() * 3);
+                int target = Math.max(0, Math.min(nextLayerSize - 1, row + offset));
+                edges.add(i, nextLayerStart + target);
+            }
+        }
+        return edges.build("layered", x, y);
+    }
+
+    // Tight groups of heavily wired nodes with a few wires between neighbouring groups
+    public static SyntheticGraph denseClusters(int clusters, int clusterSize, double density, long seed) {
+        Random random = new Random(seed);
+        int nodes = clusters * clusterSize;
+        int columns = (int) Math.ceil(Math.sqrt(clusters));
+        double clusterSpacing = Math.sqrt(clusterSize) * SPACING_X * 1.5;
+        double[] x = new double[nodes];
+        double[] y = new double[nodes];
+
+        Edges edges = new Edges((int) (nodes * clusterSize * density / 2) + clusters);
+        for (int c = 0; c < clusters; c++) {
+            double centerX = (c % columns) * clusterSpacing;
+            double centerY = (c / columns) * clusterSpacing;
+            int first = c * clusterSize;
+            for (int i = 0; i < clusterSize; i++) {
+                x[first + i] = centerX + random.nextGaussian() * clusterSpacing / 6;
+                y[first + i] = centerY + random.nextGaussian() * clusterSpacing / 6;
+                for (int j = i + 1; j < clusterSize; j++) {
+                    if (random.nextDouble() < density) edges.add(first + i, first + j);
+                }
+            }
+            if (c + 1 < clusters) edges.add(first + random.nextInt(clusterSize), first + clusterSize + random.nextInt(clusterSize));
+        }
+        return edges.build("clustered", x, y);
+    }
+
+    private static final class Edges {
+        private int[] from;
+        private int[] to;
+        private int size = 0;
+        private final Set<Long> seen = new HashSet<>();
+
+        Edges(int capacity) {
+            from = new int[Math.max(16, capacity)];
+            to = new int[from.length];
+        }
+
+        void add(int a, int b) {
+            if (a == b || !seen.add(((long) a << 32) | b)) return;
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+            }
+            from[size] = a;
+            to[size] = b;
+            size++;
+        }
+
+        SyntheticGraph build(String name, double[] x, double[] y) {
+            return new SyntheticGraph(name, x, y, Arrays.copyOf(from, size), Arrays.copyOf(to, size));
+        }
+    }
+}